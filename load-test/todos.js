@@ -0,0 +1,65 @@
+// Нагрузочный тест API списков дел (k6, https://k6.io).
+//
+// Сравнение режимов выполнения запросов:
+//   TODO_VIRTUAL_THREADS=false ./gradlew bootRun   # пул платформенных потоков Tomcat
+//   TODO_VIRTUAL_THREADS=true  ./gradlew bootRun   # виртуальные потоки + todo.db-limiter
+//   k6 run --summary-export=build/k6-platform.json load-test/todos.js
+//   k6 run --summary-export=build/k6-virtual.json  load-test/todos.js
+//
+// В сводке смотреть http_reqs (пропускная способность) и p(99) у http_req_duration;
+// ответы 503 (лимитер) учитываются отдельно в метрике db_busy.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const dbBusy = new Counter('db_busy');
+
+export const options = {
+    scenarios: {
+        ramp: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: 200 },
+                { duration: '1m', target: 1000 },
+                { duration: '30s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const ids = [];
+    for (let i = 0; i < 50; i++) {
+        const tasks = [];
+        for (let j = 0; j < 20; j++) {
+            tasks.push({ title: `Задача ${j}`, completed: j % 2 === 0 });
+        }
+        const res = http.post(`${BASE_URL}/api/todos`,
+            JSON.stringify({ title: `Нагрузка ${i}`, tasks: tasks }),
+            { headers: { 'Content-Type': 'application/json' } });
+        ids.push(res.json('id'));
+    }
+    return { ids: ids };
+}
+
+export default function (data) {
+    const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+    const roll = Math.random();
+    let res;
+    if (roll < 0.5) {
+        res = http.get(`${BASE_URL}/api/todos/${id}/tasks`, { tags: { name: 'tasks' } });
+    } else if (roll < 0.8) {
+        res = http.get(`${BASE_URL}/api/todos?limit=20&include=tasks`, { tags: { name: 'page' } });
+    } else {
+        res = http.post(`${BASE_URL}/api/todos/${id}/tasks`,
+            JSON.stringify({ title: 'Новая задача' }),
+            { headers: { 'Content-Type': 'application/json' }, tags: { name: 'create' } });
+    }
+    if (res.status === 503) {
+        dbBusy.add(1);
+    }
+    check(res, { 'status is 2xx': (r) => r.status >= 200 && r.status < 300 });
+}
@@ -0,0 +1,63 @@
+package com.todo.TodoList.benchmark;
+
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoDto;
+import com.todo.TodoList.entity.Task;
+import com.todo.TodoList.entity.TodoItem;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Тестовые данные для бенчмарков: списки дел с заданным количеством задач.
+ */
+final class BenchmarkData {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+    private BenchmarkData() {
+    }
+
+    static TodoItem todoItem(long id, int taskCount) {
+        TodoItem todoItem = new TodoItem();
+        todoItem.setId(id);
+        todoItem.setTitle("Покупки на неделю " + id);
+        todoItem.setDescription("Список продуктов и товаров для покупки");
+        todoItem.setCreatedAt(CREATED_AT);
+        todoItem.setVersion(0L);
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task();
+            task.setId(id * 100_000 + i);
+            task.setTitle("Купить молоко " + i);
+            task.setDescription("2 литра, обезжиренное");
+            task.setCompleted(i % 3 == 0);
+            task.setCreatedAt(CREATED_AT);
+            task.setVersion(0L);
+            todoItem.addTask(task);
+        }
+        todoItem.setTaskCount(taskCount);
+        todoItem.setCompletedTaskCount(todoItem.getTasks().stream().filter(Task::isCompleted).count());
+        return todoItem;
+    }
+
+    static TodoDto todoDto(int taskCount) {
+        TodoDto todoDto = new TodoDto();
+        todoDto.setTitle("Покупки на неделю");
+        todoDto.setDescription("Список продуктов и товаров для покупки");
+        List<TaskDto> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(taskDto(i));
+        }
+        todoDto.setTasks(tasks);
+        return todoDto;
+    }
+
+    static TaskDto taskDto(int i) {
+        TaskDto taskDto = new TaskDto();
+        taskDto.setTitle("Купить молоко " + i);
+        taskDto.setDescription("2 литра, обезжиренное");
+        taskDto.setCompleted(i % 3 == 0);
+        return taskDto;
+    }
+}
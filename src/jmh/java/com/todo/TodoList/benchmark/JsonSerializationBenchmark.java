@@ -0,0 +1,55 @@
+package com.todo.TodoList.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoDto;
+import com.todo.TodoList.mapper.TodoMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+
+/**
+ * Jackson-сериализация DTO с настройками ObjectMapper, как в Spring Boot.
+ */
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"0", "10", "1000", "10000"})
+    private int taskCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private TodoDto todoDto;
+    private TaskDto taskDto;
+    private byte[] todoJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        TodoMapper todoMapper = Mappers.getMapper(TodoMapper.class);
+        todoDto = todoMapper.toDto(BenchmarkData.todoItem(1L, taskCount));
+        taskDto = todoDto.getTasks().isEmpty() ? BenchmarkData.taskDto(0) : todoDto.getTasks().get(0);
+        todoJson = objectMapper.writeValueAsBytes(todoDto);
+    }
+
+    @Benchmark
+    public byte[] serializeTodo() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(todoDto);
+    }
+
+    @Benchmark
+    public TodoDto deserializeTodo() throws IOException {
+        return objectMapper.readValue(todoJson, TodoDto.class);
+    }
+
+    @Benchmark
+    public byte[] serializeTask() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(taskDto);
+    }
+}
@@ -0,0 +1,80 @@
+package com.todo.TodoList.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todo.TodoList.config.CompactFormatsConfig;
+import com.todo.TodoList.dto.TodoDto;
+import com.todo.TodoList.mapper.TodoMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Размер и стоимость сериализации списков дел в JSON, CBOR и Smile, без сжатия и с gzip
+ * (тот же уровень сжатия, что у Tomcat). Размер ответа печатается при подготовке каждого прогона.
+ */
+@State(Scope.Benchmark)
+public class PayloadFormatBenchmark {
+
+    public enum Format {
+        JSON,
+        CBOR,
+        SMILE
+    }
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private Format format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"10", "1000", "10000"})
+    private int taskCount;
+
+    private ObjectMapper objectMapper;
+    private List<TodoDto> todos;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            // Как JSON-конвертер Spring Boot: даты ISO-строками
+            case JSON -> Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            case CBOR -> CompactFormatsConfig.compactObjectMapper(Jackson2ObjectMapperBuilder.cbor());
+            case SMILE -> CompactFormatsConfig.compactObjectMapper(Jackson2ObjectMapperBuilder.smile());
+        };
+
+        // GET /api/todos/todosAll: десять списков по taskCount / 10 задач
+        TodoMapper todoMapper = Mappers.getMapper(TodoMapper.class);
+        todos = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            todos.add(todoMapper.toDto(BenchmarkData.todoItem(id, taskCount / 10)));
+        }
+
+        System.out.printf("%n[format=%s, gzip=%s, taskCount=%d] %d bytes%n", format, gzip, taskCount, serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(todos);
+        if (!gzip) {
+            return body;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,66 @@
+package com.todo.TodoList.benchmark;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Обёртка DataSource для бенчмарков: считает строки и ячейки (строки x колонки), прочитанные из ResultSet.
+ * Остальные вызовы, включая unwrap, уходят в исходные JDBC-объекты.
+ */
+final class RowCountingDataSource {
+
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder cells = new LongAdder();
+
+    long rows() {
+        return rows.sum();
+    }
+
+    long cells() {
+        return cells.sum();
+    }
+
+    DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, T target) {
+        int[] columns = {-1};
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (target instanceof ResultSet resultSet && method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                if (columns[0] < 0) {
+                    columns[0] = resultSet.getMetaData().getColumnCount();
+                }
+                rows.increment();
+                cells.add(columns[0]);
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == Connection.class && result != null) {
+                return proxy(Connection.class, (Connection) result);
+            }
+            if (returnType == PreparedStatement.class && result != null) {
+                return proxy(PreparedStatement.class, (PreparedStatement) result);
+            }
+            if (returnType == Statement.class && result != null) {
+                return proxy(Statement.class, (Statement) result);
+            }
+            if (returnType == ResultSet.class && result != null) {
+                return proxy(ResultSet.class, (ResultSet) result);
+            }
+            return result;
+        });
+    }
+}
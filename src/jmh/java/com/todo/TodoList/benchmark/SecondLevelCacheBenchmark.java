@@ -0,0 +1,124 @@
+package com.todo.TodoList.benchmark;
+
+import com.todo.TodoList.TodoListApplication;
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoDto;
+import com.todo.TodoList.mapper.TodoMapper;
+import com.todo.TodoList.repository.TodoRepository;
+import com.todo.TodoList.service.TaskService;
+import com.todo.TodoList.service.TodoService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Запросы к БД на вызов с кэшем второго уровня Hibernate и без него (secondLevelCache=false).
+ * Кэш DTO (Spring Cache) обходится: список дел читается из репозитория в транзакции.
+ * В конце каждого прогона печатается среднее число SQL-выражений на вызов по статистике Hibernate.
+ */
+@State(Scope.Benchmark)
+public class SecondLevelCacheBenchmark {
+
+    @Param({"false", "true"})
+    private boolean secondLevelCache;
+
+    @Param({"10", "100"})
+    private int taskCount;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+
+    private TodoRepository todoRepository;
+    private TaskService taskService;
+    private TodoMapper todoMapper;
+    private TransactionTemplate readOnlyTransaction;
+    private Statistics statistics;
+
+    private final LongAdder calls = new LongAdder();
+    private long statementsAtStart;
+
+    private Long todoId;
+    private Long taskId;
+
+    @Setup
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(TodoListApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                        "todo.archive.enabled=false",
+                        "todo.outbox.relay.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        todoRepository = context.getBean(TodoRepository.class);
+        taskService = context.getBean(TaskService.class);
+        todoMapper = context.getBean(TodoMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        todoId = context.getBean(TodoService.class).createTodo(BenchmarkData.todoDto(taskCount)).getId();
+        taskId = taskService.getAllTasksForTodo(todoId, false).get(0).getId();
+        statementsAtStart = statistics.getPrepareStatementCount();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        long statements = statistics.getPrepareStatementCount() - statementsAtStart;
+        System.out.printf("%n[secondLevelCache=%s, taskCount=%d] %.2f SQL statements per call (%d calls)%n",
+                secondLevelCache, taskCount, (double) statements / Math.max(1, calls.sum()), calls.sum());
+        context.close();
+        postgres.close();
+    }
+
+    /**
+     * Путь GET /api/todos/{id} при промахе кэша DTO: findById с задачами и маппинг.
+     */
+    @Benchmark
+    public TodoDto loadTodoWithTasks() {
+        calls.increment();
+        return readOnlyTransaction.execute(status -> todoMapper.toDto(todoRepository.findById(todoId)
+                .orElseThrow(() -> new NoSuchElementException("TodoItem not found with id: " + todoId))));
+    }
+
+    /**
+     * GET /api/todos/{todoId}/tasks/{taskId}: проверка списка и findByIdAndTodoItemId.
+     */
+    @Benchmark
+    public TaskDto getTask() {
+        calls.increment();
+        return taskService.getTaskById(todoId, taskId);
+    }
+
+    /**
+     * GET /api/todos/{todoId}/tasks: проекция из кэша запросов.
+     */
+    @Benchmark
+    public List<TaskDto> getTasks() {
+        calls.increment();
+        return taskService.getAllTasksForTodo(todoId, false);
+    }
+}
@@ -0,0 +1,136 @@
+package com.todo.TodoList.benchmark;
+
+import com.todo.TodoList.TodoListApplication;
+import com.todo.TodoList.config.CacheConfig;
+import com.todo.TodoList.dto.PageDto;
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoDto;
+import com.todo.TodoList.dto.TodoSummaryDto;
+import com.todo.TodoList.mapper.TodoMapper;
+import com.todo.TodoList.repository.TaskRepository;
+import com.todo.TodoList.service.TaskService;
+import com.todo.TodoList.service.TodoService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Операции TodoService/TaskService на встроенном PostgreSQL с миграциями Liquibase.
+ * Контекст поднимается без веб-сервера; кэш для "холодных" замеров сбрасывается перед вызовом.
+ */
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    @Param({"10", "1000"})
+    private int taskCount;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+
+    private TodoService todoService;
+    private TaskService taskService;
+    private TaskRepository taskRepository;
+    private TodoMapper todoMapper;
+    private CacheManager cacheManager;
+    private TransactionTemplate readOnlyTransaction;
+
+    private Long todoId;
+    private Long taskId;
+
+    @Setup
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(TodoListApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        todoService = context.getBean(TodoService.class);
+        taskService = context.getBean(TaskService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        todoMapper = context.getBean(TodoMapper.class);
+        cacheManager = context.getBean(CacheManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        // Несколько списков, чтобы страницы и join-ы работали не по одной строке
+        for (int i = 0; i < 20; i++) {
+            todoId = todoService.createTodo(BenchmarkData.todoDto(taskCount)).getId();
+        }
+        taskId = taskService.getAllTasksForTodo(todoId, false).get(0).getId();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public TodoDto getTodoByIdCached() {
+        return todoService.getTodoById(todoId);
+    }
+
+    @Benchmark
+    public TodoDto getTodoByIdUncached() {
+        cacheManager.getCache(CacheConfig.TODOS_CACHE).evict(todoId);
+        return todoService.getTodoById(todoId);
+    }
+
+    @Benchmark
+    public PageDto<TodoDto> getTodoPageWithTasks() {
+        return todoService.getTodoPage(null, 10, true);
+    }
+
+    @Benchmark
+    public PageDto<TodoSummaryDto> getTodoSummaryPage() {
+        return todoService.getTodoSummaryPage(null, 50);
+    }
+
+    /**
+     * Задачи через DTO-проекцию (текущая реализация).
+     */
+    @Benchmark
+    public List<TaskDto> getTasksProjection() {
+        return taskService.getAllTasksForTodo(todoId, false);
+    }
+
+    /**
+     * Те же задачи через загрузку сущностей и MapStruct - для сравнения аллокаций с проекцией.
+     */
+    @Benchmark
+    public List<TaskDto> getTasksEntities() {
+        return readOnlyTransaction.execute(status ->
+                taskRepository.findByTodoItemId(todoId).stream().map(todoMapper::toDto).toList());
+    }
+
+    @Benchmark
+    public TaskDto toggleTaskCompletion() {
+        return taskService.toggleTaskCompletion(todoId, taskId);
+    }
+
+    @Benchmark
+    public TaskDto createAndDeleteTask() {
+        TaskDto created = taskService.createTask(todoId, BenchmarkData.taskDto(1));
+        taskService.deleteTask(todoId, created.getId());
+        return created;
+    }
+}
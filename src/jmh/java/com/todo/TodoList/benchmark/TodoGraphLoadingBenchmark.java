@@ -0,0 +1,118 @@
+package com.todo.TodoList.benchmark;
+
+import com.todo.TodoList.TodoListApplication;
+import com.todo.TodoList.config.CacheConfig;
+import com.todo.TodoList.dto.TodoDto;
+import com.todo.TodoList.service.TodoFetchStrategy;
+import com.todo.TodoList.service.TodoService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Загрузка списков дел с задачами: один LEFT JOIN через @EntityGraph против двух запросов (BATCH).
+ * Кэши (DTO и второго уровня) отключены, чтобы каждый вызов шёл в БД.
+ * В конце прогона печатается объём прочитанного из БД на вызов: строки и ячейки (строки x колонки).
+ */
+@State(Scope.Benchmark)
+public class TodoGraphLoadingBenchmark {
+
+    private static final int TODO_COUNT = 20;
+
+    @Param({"ENTITY_GRAPH", "BATCH"})
+    private TodoFetchStrategy strategy;
+
+    @Param({"10", "1000"})
+    private int taskCount;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private final RowCountingDataSource rowCounter = new RowCountingDataSource();
+
+    private TodoService todoService;
+    private CacheManager cacheManager;
+
+    private final LongAdder calls = new LongAdder();
+    private long rowsAtStart;
+    private long cellsAtStart;
+
+    private Long todoId;
+
+    @Setup
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(TodoListApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                                ? rowCounter.wrap(dataSource)
+                                : bean;
+                    }
+                }))
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "todo.fetch.list=" + strategy,
+                        "todo.fetch.by-id=" + strategy,
+                        "todo.archive.enabled=false",
+                        "todo.outbox.relay.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        todoService = context.getBean(TodoService.class);
+        cacheManager = context.getBean(CacheManager.class);
+
+        for (int i = 0; i < TODO_COUNT; i++) {
+            todoId = todoService.createTodo(BenchmarkData.todoDto(taskCount)).getId();
+        }
+        rowsAtStart = rowCounter.rows();
+        cellsAtStart = rowCounter.cells();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        double perCall = Math.max(1, calls.sum());
+        System.out.printf("%n[strategy=%s, taskCount=%d] %.1f rows, %.1f cells read per call%n",
+                strategy, taskCount, (rowCounter.rows() - rowsAtStart) / perCall, (rowCounter.cells() - cellsAtStart) / perCall);
+        context.close();
+        postgres.close();
+    }
+
+    /**
+     * GET /api/todos: все списки дел с задачами.
+     */
+    @Benchmark
+    public List<TodoDto> getAllTodos() {
+        calls.increment();
+        return todoService.getAllTodos();
+    }
+
+    /**
+     * GET /api/todos/{id} при промахе кэша DTO.
+     */
+    @Benchmark
+    public TodoDto getTodoById() {
+        calls.increment();
+        cacheManager.getCache(CacheConfig.TODOS_CACHE).evict(todoId);
+        return todoService.getTodoById(todoId);
+    }
+}
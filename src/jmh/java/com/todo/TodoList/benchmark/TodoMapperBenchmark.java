@@ -0,0 +1,52 @@
+package com.todo.TodoList.benchmark;
+
+import com.todo.TodoList.dto.TodoDto;
+import com.todo.TodoList.entity.TodoItem;
+import com.todo.TodoList.mapper.TodoMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * MapStruct-маппинг списка дел с разным количеством задач.
+ */
+@State(Scope.Benchmark)
+public class TodoMapperBenchmark {
+
+    @Param({"0", "10", "1000", "10000"})
+    private int taskCount;
+
+    private final TodoMapper todoMapper = Mappers.getMapper(TodoMapper.class);
+
+    private TodoItem todoItem;
+    private TodoDto todoDto;
+    private TodoDto patch;
+
+    @Setup
+    public void setUp() {
+        todoItem = BenchmarkData.todoItem(1L, taskCount);
+        todoDto = todoMapper.toDto(todoItem);
+        patch = new TodoDto();
+        patch.setTitle("Новое название");
+        patch.setCompleted(true);
+    }
+
+    @Benchmark
+    public TodoDto toDto() {
+        return todoMapper.toDto(todoItem);
+    }
+
+    @Benchmark
+    public TodoItem toEntity() {
+        return todoMapper.toEntity(todoDto);
+    }
+
+    @Benchmark
+    public TodoItem updateEntityFromDto() {
+        todoMapper.updateEntityFromDto(patch, todoItem);
+        return todoItem;
+    }
+}
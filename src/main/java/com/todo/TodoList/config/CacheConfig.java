@@ -0,0 +1,40 @@
+package com.todo.TodoList.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+/**
+ * Кэш DTO списков дел.
+ * <p>
+ * Сервисы работают только с абстракцией Spring Cache ({@link org.springframework.cache.Cache}, {@code @CacheEvict}),
+ * поэтому для распределённого кэша достаточно заменить бин {@link CacheManager} (например, на RedisCacheManager).
+ * <p>
+ * Кэширующий advice выполняется раньше транзакционного, поэтому вытеснение происходит после коммита.
+ * Дополнительно вытеснение и запись внутри транзакции откладываются до её коммита через
+ * {@link TransactionAwareCacheManagerProxy}. Запись читателя может лечь в кэш уже после вытеснения
+ * конкурентной записью, поэтому {@code TodoService.getTodoById} сверяет версию DTO с текущей версией списка.
+ * Метрики попаданий, промахов и вытеснений публикуются Actuator-ом (cache.gets, cache.evictions).
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String TODOS_CACHE = "todos";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${todo.cache.todos.spec}") String todosSpec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCacheSpecification(todosSpec);
+        caffeineCacheManager.setAllowNullValues(false);
+        caffeineCacheManager.setCacheNames(List.of(TODOS_CACHE));
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,60 @@
+package com.todo.TodoList.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoDto;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.List;
+
+/**
+ * Компактные бинарные представления ответов, выбираемые заголовком Accept:
+ * {@code application/cbor} и {@code application/x-jackson-smile}. JSON остаётся форматом по умолчанию.
+ * <p>
+ * По сравнению с JSON даты пишутся числами, null-поля опускаются,
+ * а у вложенных в список дел задач нет повторяющегося todoItemId.
+ * Бины заменяют стандартные CBOR/Smile-конвертеры Spring MVC на их же месте в списке, после JSON.
+ */
+@Configuration
+public class CompactFormatsConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(compactObjectMapper(builder.factory(new CBORFactory())));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(compactObjectMapper(builder.factory(new SmileFactory())));
+    }
+
+    /**
+     * @param builder построитель с уже заданной бинарной фабрикой (CBOR или Smile)
+     */
+    public static ObjectMapper compactObjectMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .mixIn(TodoDto.class, CompactTodoMixin.class)
+                .build();
+    }
+
+    /**
+     * Задачи внутри списка дел: todoItemId совпадает с id владельца.
+     */
+    abstract static class CompactTodoMixin {
+        @JsonIgnoreProperties("todoItemId")
+        private List<TaskDto> tasks;
+    }
+}
@@ -0,0 +1,92 @@
+package com.todo.TodoList.config;
+
+import com.todo.TodoList.service.DatabaseBusyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничивает число одновременных транзакций сервисов размером пула Hikari за вычетом резерва.
+ * <p>
+ * На виртуальных потоках Tomcat принимает практически неограниченное число запросов,
+ * и без ограничения все они встают в очередь за соединением внутри Hikari до connection-timeout.
+ * Здесь лишние запросы ждут честного семафора не дольше {@code todo.db-limiter.acquire-timeout}
+ * и получают 503 вместо исчерпания пула.
+ * <p>
+ * Advice выполняется после кэширующего (попадание в кэш не занимает разрешение) и до транзакционного.
+ * Разрешение соответствует соединению только при {@code spring.jpa.open-in-view: false}: иначе
+ * EntityManager запроса держит соединение до конца запроса, уже после возврата разрешения.
+ * Вложенные вызовы внутри уже открытой транзакции разрешение не запрашивают.
+ * <p>
+ * Захват и чтение ключей идемпотентности ({@code IdempotencyStore.claim/find}) выполняются до сервисов
+ * и тоже ограничиваются. Остальным соединениям мимо семафора - реле outbox, фоновым задачам на JdbcTemplate,
+ * сохранению ответов идемпотентности, health-check - оставляется {@code todo.db-limiter.reserved-connections}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "todo.db-limiter.enabled", havingValue = "true")
+public class DbConcurrencyLimiter {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final Timer waitTimer;
+
+    public DbConcurrencyLimiter(@Value("${todo.db-limiter.connections:${spring.datasource.hikari.maximum-pool-size}}") int connections,
+                                @Value("${todo.db-limiter.reserved-connections:3}") int reservedConnections,
+                                @Value("${todo.db-limiter.acquire-timeout:5s}") Duration acquireTimeout,
+                                MeterRegistry meterRegistry) {
+        if (connections - reservedConnections < 1) {
+            throw new IllegalStateException("todo.db-limiter.connections (" + connections
+                    + ") must exceed todo.db-limiter.reserved-connections (" + reservedConnections + ")");
+        }
+        this.permits = new Semaphore(connections - reservedConnections, true);
+        this.acquireTimeout = acquireTimeout;
+        this.waitTimer = Timer.builder("todo.db.limiter.wait")
+                .description("Time spent waiting for a database permit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("todo.db.limiter.available", permits, Semaphore::availablePermits)
+                .description("Free database permits")
+                .register(meterRegistry);
+        Gauge.builder("todo.db.limiter.queued", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a database permit")
+                .register(meterRegistry);
+    }
+
+    @Around("(execution(public * com.todo.TodoList.service..*(..)) && "
+            + "(@within(org.springframework.transaction.annotation.Transactional) "
+            + "|| @annotation(org.springframework.transaction.annotation.Transactional))) "
+            + "|| execution(public * com.todo.TodoList.idempotency.IdempotencyStore.claim(..)) "
+            + "|| execution(public * com.todo.TodoList.idempotency.IdempotencyStore.find(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        long start = System.nanoTime();
+        boolean acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            throw new DatabaseBusyException("Database is busy, retry later");
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            permits.release();
+        }
+    }
+}
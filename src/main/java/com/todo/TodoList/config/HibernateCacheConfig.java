@@ -0,0 +1,108 @@
+package com.todo.TodoList.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Кэш второго уровня Hibernate (JCache поверх Caffeine) для TodoItem, Task, коллекции TodoItem.tasks
+ * и запросов TaskRepository.
+ * <p>
+ * Регионы создаются заранее по {@code todo.cache.hibernate.regions} (max-size, ttl);
+ * регион без настроек - ошибка запуска ({@code missing_cache_strategy: fail}).
+ * Изменения мимо Hibernate (нативные UPDATE/DELETE ... RETURNING, JdbcTemplate) вытесняются через
+ * {@link com.todo.TodoList.service.HibernateCacheEvictor}.
+ * <p>
+ * Доля попаданий по регионам - метрика {@code todo.hibernate.cache.hit.ratio};
+ * счётчики {@code hibernate.second.level.cache.requests} публикует Actuator.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String TODO_ITEMS_REGION = "todo-items";
+    public static final String TASKS_REGION = "tasks";
+    public static final String TODO_TASKS_REGION = "todo-items-tasks";
+    public static final String TASK_QUERIES_REGION = "task-queries";
+
+    private static final List<String> REGIONS = List.of(TODO_ITEMS_REGION, TASKS_REGION, TODO_TASKS_REGION, TASK_QUERIES_REGION);
+
+    public record RegionSettings(long maxSize, Duration ttl) {
+
+        CaffeineConfiguration<Object, Object> toConfiguration() {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            // Регион меток обновления таблиц не должен истекать: ttl для него не задаётся
+            configuration.setExpireAfterWrite(ttl == null ? OptionalLong.empty() : OptionalLong.of(ttl.toNanos()));
+            return configuration;
+        }
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        Map<String, RegionSettings> regions = Binder.get(environment)
+                .bind("todo.cache.hibernate.regions", Bindable.mapOf(String.class, RegionSettings.class))
+                .orElse(Map.of());
+
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        regions.forEach((region, settings) -> cacheManager.createCache(region, settings.toConfiguration()));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Статистика берётся из фабрики при каждом снятии метрики, чтобы не создавать её раньше реестра метрик.
+     */
+    @Bean
+    public MeterBinder hibernateCacheHitRatio(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return registry -> {
+            for (String region : REGIONS) {
+                Gauge.builder("todo.hibernate.cache.hit.ratio", () -> hitRatio(entityManagerFactory, region))
+                        .description("Share of second-level cache lookups served from the region")
+                        .tag("region", region)
+                        .strongReference(true)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double hitRatio(ObjectProvider<EntityManagerFactory> entityManagerFactory, String region) {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (factory == null) {
+            return Double.NaN;
+        }
+        CacheRegionStatistics statistics = factory.unwrap(SessionFactory.class).getStatistics().getCacheRegionStatistics(region);
+        if (statistics == null) {
+            return Double.NaN;
+        }
+        long hits = statistics.getHitCount();
+        long requests = hits + statistics.getMissCount();
+        return requests == 0 ? Double.NaN : (double) hits / requests;
+    }
+}
@@ -0,0 +1,119 @@
+package com.todo.TodoList.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Маршрутизация соединений: транзакции {@code readOnly = true} идут в пул реплики, остальные - в primary.
+ * Включается, когда задан {@code todo.datasource.replica.url}; иначе используется обычный DataSource Spring Boot.
+ * <p>
+ * {@link LazyConnectionDataSourceProxy} берёт физическое соединение только при первом запросе,
+ * когда флаг read-only транзакции уже выставлен, и тогда выбирает пул реплики.
+ * Клиенты в окне read-your-writes ({@link ReadYourWritesFilter}) читают с primary.
+ * <p>
+ * Транзакции, уходящие на реплику, читают кэши, но не заполняют их ({@link CacheMode#GET}): отстающая реплика
+ * иначе вернула бы в кэш состояние, уже вытесненное после коммита на primary, и его получали бы все клиенты
+ * до истечения ttl. Межузловой инвалидации кэшей нет: при нескольких экземплярах приложения кэш второго уровня
+ * каждого из них вытесняется только его собственными записями.
+ */
+@Configuration
+@ConditionalOnExpression("!'${todo.datasource.replica.url:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("todo.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${todo.datasource.replica.url}") String url,
+                                              @Value("${todo.datasource.replica.username:${spring.datasource.username}}") String username,
+                                              @Value("${todo.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        AbstractRoutingDataSource readOnlyRouting = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return ReadYourWrites.isPrimaryRequired() ? PRIMARY : REPLICA;
+            }
+        };
+        readOnlyRouting.setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        readOnlyRouting.setDefaultTargetDataSource(primary);
+        readOnlyRouting.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(readOnlyRouting);
+        return proxy;
+    }
+
+    /**
+     * Режим кэша второго уровня выставляется каждой транзакции: при open-in-view сессия переживает транзакцию.
+     */
+    @Bean
+    public JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager() {
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+                super.doBegin(transaction, definition);
+                EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+                boolean replica = definition.isReadOnly() && !ReadYourWrites.isPrimaryRequired();
+                holder.getEntityManager().unwrap(Session.class).setCacheMode(replica ? CacheMode.GET : CacheMode.NORMAL);
+            }
+        };
+        customizers.ifAvailable(transactionManagerCustomizers -> transactionManagerCustomizers.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${todo.datasource.replica.read-your-writes-window:5s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,26 @@
+package com.todo.TodoList.config;
+
+/**
+ * Признак "читать с primary" для текущего запроса: клиент недавно изменял данные,
+ * и реплика могла ещё не получить его изменения.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+        // Утилитный класс
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
@@ -0,0 +1,57 @@
+package com.todo.TodoList.controller;
+
+import com.todo.TodoList.service.BatchOperationException;
+import com.todo.TodoList.service.DatabaseBusyException;
+import com.todo.TodoList.service.PreconditionFailedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.NoSuchElementException;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail handleIllegalArgument(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ProblemDetail handlePreconditionFailed(PreconditionFailedException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.PRECONDITION_FAILED, e.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                "The resource was modified concurrently, reload it and retry");
+    }
+
+    /**
+     * Статус определяется причиной; operationIndex указывает на операцию, из-за которой пакет откатан.
+     */
+    @ExceptionHandler(BatchOperationException.class)
+    public ProblemDetail handleBatchOperation(BatchOperationException e) {
+        HttpStatus status = switch (e.getCause()) {
+            case NoSuchElementException ignored -> HttpStatus.NOT_FOUND;
+            case OptimisticLockingFailureException ignored -> HttpStatus.CONFLICT;
+            case null, default -> HttpStatus.BAD_REQUEST;
+        };
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, e.getMessage());
+        problem.setProperty("operationIndex", e.getIndex());
+        problem.setProperty("operation", e.getOperation());
+        return problem;
+    }
+
+    @ExceptionHandler(DatabaseBusyException.class)
+    public ResponseEntity<ProblemDetail> handleDatabaseBusy(DatabaseBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
+    }
+}
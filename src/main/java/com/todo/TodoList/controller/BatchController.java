@@ -0,0 +1,73 @@
+package com.todo.TodoList.controller;
+
+import com.todo.TodoList.dto.BatchRequestDto;
+import com.todo.TodoList.dto.BatchResultDto;
+import com.todo.TodoList.idempotency.IdempotencyFilter;
+import com.todo.TodoList.service.BatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/batch")
+@RequiredArgsConstructor
+@Tag(name = "Batch Controller", description = "API для выполнения нескольких изменений списков дел и задач одним запросом")
+public class BatchController {
+
+    private final BatchService batchService;
+
+    @PostMapping
+    @Operation(
+            summary = "Выполнить пакет операций",
+            description = "Выполняет до " + BatchService.MAX_OPERATIONS + " операций (CREATE_TODO, UPDATE_TODO, DELETE_TODO, " +
+                    "CREATE_TASK, UPDATE_TASK, TOGGLE_TASK, DELETE_TASK) по порядку в одной транзакции. " +
+                    "Создаваемым объектам можно назначить временный ref и ссылаться на него в todoRef/taskRef последующих операций. " +
+                    "Операции с задачами требуют todoId или todoRef списка, которому принадлежит задача. " +
+                    "При ошибке любой операции пакет откатывается целиком, в ответе указывается operationIndex."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Пакет выполнен, результаты по каждой операции в порядке запроса",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResultDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректная операция или данные (пакет откатан)",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Список дел или задача из операции не найдены (пакет откатан)",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Версия из операции не совпадает с текущей (пакет откатан)",
+                    content = @Content
+            )
+    })
+    @Parameter(
+            name = IdempotencyFilter.HEADER,
+            in = ParameterIn.HEADER,
+            description = "Ключ идемпотентности. Повтор запроса с тем же ключом возвращает сохранённый ответ " +
+                    "без повторного выполнения пакета (заголовок Idempotent-Replayed: true)",
+            example = "3f6c1c1e-8d3b-4f43-9a53-2b1c7e0f4a11"
+    )
+    public ResponseEntity<BatchResultDto> executeBatch(
+            @Parameter(description = "Операции в порядке выполнения", required = true)
+            @Valid @RequestBody BatchRequestDto request) {
+        return ResponseEntity.ok(batchService.execute(request.getOperations()));
+    }
+}
@@ -0,0 +1,27 @@
+package com.todo.TodoList.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Условные GET по ETag. Тело ответа согласуется по Accept (JSON, CBOR, Smile) под одним ETag,
+ * поэтому и 200, и 304 несут {@code Vary: Accept} для промежуточных кэшей.
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+        // Утилитный класс
+    }
+
+    /**
+     * @return true, если выставлен ответ 304 и тело строить не нужно
+     */
+    static boolean checkNotModified(ServletWebRequest request, String eTag) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return request.checkNotModified(eTag);
+    }
+}
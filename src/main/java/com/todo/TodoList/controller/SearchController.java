@@ -0,0 +1,62 @@
+package com.todo.TodoList.controller;
+
+import com.todo.TodoList.dto.PageDto;
+import com.todo.TodoList.dto.SearchResultDto;
+import com.todo.TodoList.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Tag(name = "Search Controller", description = "API полнотекстового поиска по спискам дел и задачам")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    @Operation(
+            summary = "Найти списки дел и задачи",
+            description = "Ищет по названиям и описаниям списков дел и задач (русская морфология). " +
+                    "Поддерживается синтаксис веб-поиска: несколько слов, \"точная фраза\", -исключение, or. " +
+                    "Результаты упорядочены по релевантности; совпадение в названии важнее совпадения в описании. " +
+                    "Для следующей страницы передайте nextCursor в параметр after. " +
+                    "В поле snippet найденные слова выделены тегом <mark>, остальной текст экранирован."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Страница результатов успешно получена",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PageDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Пустой запрос, неверный курсор или limit вне диапазона",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<PageDto<SearchResultDto>> search(
+            @Parameter(description = "Строка поиска", example = "купить молоко", required = true)
+            @RequestParam @NotBlank @Size(max = 200) String q,
+            @Parameter(description = "Курсор из поля nextCursor предыдущей страницы")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Размер страницы (1-" + SearchService.MAX_PAGE_SIZE + ")", example = "20")
+            @RequestParam(defaultValue = "" + SearchService.DEFAULT_PAGE_SIZE)
+            @Min(1) @Max(SearchService.MAX_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(searchService.search(q, after, limit));
+    }
+}
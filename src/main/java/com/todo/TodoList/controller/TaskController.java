@@ -1,19 +1,32 @@
 package com.todo.TodoList.controller;
 
+import com.todo.TodoList.dto.BulkUpdateResultDto;
+import com.todo.TodoList.dto.PageDto;
+import com.todo.TodoList.dto.TaskBatchResultDto;
+import com.todo.TodoList.dto.TaskCompletionUpdateDto;
 import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TaskFilterDto;
+import com.todo.TodoList.idempotency.IdempotencyFilter;
 import com.todo.TodoList.service.TaskService;
+import com.todo.TodoList.service.TodoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -30,7 +43,9 @@ public class TaskController {
     @Operation(
             summary = "Получить все задачи для списка дел",
             description = "Возвращает список всех задач (Tasks), принадлежащих указанному Todo Item. " +
-                    "Задачи возвращаются в том порядке, в котором они были созданы."
+                    "Задачи возвращаются в том порядке, в котором они были созданы. " +
+                    "Старые выполненные задачи переносятся в архив и возвращаются только с includeArchived=true. " +
+                    "Ответ содержит ETag; при совпадении If-None-Match возвращается 304 без тела."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -39,6 +54,11 @@ public class TaskController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = TaskDto.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Задачи не изменились с версии из If-None-Match",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Список дел с указанным ID не найден",
@@ -56,15 +76,65 @@ public class TaskController {
                     example = "1",
                     required = true
             )
-            @PathVariable Long todoId){
-        return ResponseEntity.ok(taskService.getAllTasksForTodo(todoId));
+            @PathVariable Long todoId,
+            @Parameter(description = "Включить выполненные задачи, перенесённые в архив", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @Parameter(hidden = true) ServletWebRequest request){
+        String eTag = taskService.getTaskListETag(todoId);
+        if (ConditionalRequests.checkNotModified(request, eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(taskService.getAllTasksForTodo(todoId, includeArchived));
+    }
+
+    @GetMapping("/page")
+    @Operation(
+            summary = "Получить страницу задач с фильтрами",
+            description = "Возвращает задачи списка дел с фильтрами по статусу, дате создания и началу названия " +
+                    "и сортировкой по ID, дате создания или названию. Фильтры, сортировка и лимит выполняются в БД " +
+                    "одним запросом. Для следующей страницы передайте nextCursor в параметр after " +
+                    "с теми же фильтрами и сортировкой."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Страница задач успешно получена",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PageDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Список дел с указанным ID не найден",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректные параметры (неверный курсор, формат даты или limit вне диапазона)",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<PageDto<TaskDto>> getTaskPage(
+            @Parameter(
+                    description = "Уникальный идентификатор списка дел",
+                    example = "1",
+                    required = true
+            )
+            @PathVariable Long todoId,
+            @Valid @ParameterObject TaskFilterDto filter,
+            @Parameter(description = "Курсор из поля nextCursor предыдущей страницы")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Размер страницы (1-" + TodoService.MAX_PAGE_SIZE + ")", example = "50")
+            @RequestParam(defaultValue = "" + TodoService.DEFAULT_PAGE_SIZE)
+            @Min(1) @Max(TodoService.MAX_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(taskService.getTaskPage(todoId, filter, after, limit));
     }
 
     @GetMapping("/{taskId}")
     @Operation(
             summary = "Получить задачу по ID",
             description = "Возвращает конкретную задачу по её уникальному идентификатору. " +
-                    "Задача должна принадлежать указанному списку дел (todoId)."
+                    "Задача должна принадлежать указанному списку дел (todoId). " +
+                    "Ответ содержит ETag; при совпадении If-None-Match возвращается 304 без тела."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -73,6 +143,11 @@ public class TaskController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = TaskDto.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Задача не изменилась с версии из If-None-Match",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Задача или список дел с указанными ID не найдены",
@@ -96,8 +171,13 @@ public class TaskController {
                     example = "1",
                     required = true
             )
-            @PathVariable Long taskId) {
-        return ResponseEntity.ok(taskService.getTaskById(todoId, taskId));
+            @PathVariable Long taskId,
+            @Parameter(hidden = true) ServletWebRequest request) {
+        String eTag = taskService.getTaskETag(todoId, taskId);
+        if (ConditionalRequests.checkNotModified(request, eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(taskService.getTaskById(todoId, taskId));
     }
 
     @PostMapping
@@ -132,6 +212,13 @@ public class TaskController {
                     content = @Content
             )
     })
+    @Parameter(
+            name = IdempotencyFilter.HEADER,
+            in = ParameterIn.HEADER,
+            description = "Ключ идемпотентности. Повтор запроса с тем же ключом возвращает сохранённый ответ " +
+                    "без повторного создания (заголовок Idempotent-Replayed: true)",
+            example = "3f6c1c1e-8d3b-4f43-9a53-2b1c7e0f4a11"
+    )
     public ResponseEntity<TaskDto> createTask(
             @Parameter(
                     description = "Уникальный идентификатор списка дел, к которому будет привязана задача",
@@ -148,12 +235,59 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Создать задачи пакетом",
+            description = "Создает до " + TaskService.MAX_BATCH_SIZE + " задач в рамках указанного списка дел за одну транзакцию. " +
+                    "Каждая задача проверяется по тем же правилам, что и при одиночном создании; " +
+                    "невалидные задачи отклоняются, остальные создаются. " +
+                    "Результат возвращается по каждой задаче в порядке запроса."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Пакет обработан, результаты по каждой задаче в теле ответа",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskBatchResultDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Превышен максимальный размер пакета",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Список дел с указанным ID не найден",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Внутренняя ошибка сервера при создании",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<TaskBatchResultDto> createTasks(
+            @Parameter(
+                    description = "Уникальный идентификатор списка дел, к которому будут привязаны задачи",
+                    example = "1",
+                    required = true
+            )
+            @PathVariable Long todoId,
+            @Parameter(
+                    description = "Задачи для создания",
+                    required = true
+            )
+            @RequestBody List<TaskDto> taskDtos) {
+        return ResponseEntity.ok(taskService.createTasks(todoId, taskDtos));
+    }
+
     @PutMapping("/{taskId}")
     @Operation(
             summary = "Обновить задачу",
             description = "Полностью обновляет существующую задачу по её ID. " +
                     "Задача должна принадлежать указанному списку дел (todoId). " +
-                    "Все поля должны быть предоставлены в теле запроса."
+                    "Все поля должны быть предоставлены в теле запроса. " +
+                    "С заголовком If-Match обновление выполняется, только если ETag задачи не изменился."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -172,6 +306,16 @@ public class TaskController {
                     description = "Задача или список дел с указанными ID не найдены",
                     content = @Content
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Задача была изменена параллельным запросом",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "ETag из If-Match не совпадает с текущим",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Внутренняя ошибка сервера при обновлении",
@@ -195,8 +339,11 @@ public class TaskController {
                     description = "Обновленные данные задачи",
                     required = true
             )
-            @Valid @RequestBody TaskDto taskDto) {
-        return ResponseEntity.ok(taskService.updateTask(todoId, taskId, taskDto));
+            @Valid @RequestBody TaskDto taskDto,
+            @Parameter(description = "Сильный ETag из ответа на предыдущее изменение задачи; слабый ETag (W/) из GET не совпадает - для него передайте version в теле", example = "\"1-0\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskDto updated = taskService.updateTask(todoId, taskId, taskDto, ifMatch);
+        return ResponseEntity.ok().eTag(TaskService.eTagOf(updated)).body(updated);
     }
 
     @PatchMapping("/{taskId}/toggle")
@@ -245,6 +392,51 @@ public class TaskController {
         return ResponseEntity.ok(taskService.toggleTaskCompletion(todoId, taskId));
     }
 
+    @PatchMapping("/completion")
+    @Operation(
+            summary = "Массово изменить статус выполнения задач",
+            description = "Устанавливает completed для всех задач списка дел или только для переданных taskIds " +
+                    "одним запросом к БД. Задачи, уже находящиеся в нужном статусе, не изменяются " +
+                    "и не учитываются в количестве обновлённых."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Статус задач успешно изменён",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkUpdateResultDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректные данные запроса",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Список дел с указанным ID не найден",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Внутренняя ошибка сервера при обновлении",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<BulkUpdateResultDto> updateCompletion(
+            @Parameter(
+                    description = "Уникальный идентификатор списка дел",
+                    example = "1",
+                    required = true
+            )
+            @PathVariable Long todoId,
+            @Parameter(
+                    description = "Новый статус и, опционально, идентификаторы задач",
+                    required = true
+            )
+            @Valid @RequestBody TaskCompletionUpdateDto completionDto) {
+        return ResponseEntity.ok(taskService.updateCompletion(todoId, completionDto));
+    }
+
     @DeleteMapping("/{taskId}")
     @Operation(
             summary = "Удалить задачу",
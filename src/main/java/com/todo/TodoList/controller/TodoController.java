@@ -1,21 +1,40 @@
 package com.todo.TodoList.controller;
 
+import com.todo.TodoList.config.CompactFormatsConfig;
+import com.todo.TodoList.dto.BulkDeleteResultDto;
+import com.todo.TodoList.dto.PageDto;
+import com.todo.TodoList.dto.TodoBulkDeleteDto;
 import com.todo.TodoList.dto.TodoDto;
+import com.todo.TodoList.dto.TodoSummaryDto;
+import com.todo.TodoList.dto.TodoChangeDto;
+import com.todo.TodoList.idempotency.IdempotencyFilter;
+import com.todo.TodoList.service.TodoChangeFeed;
+import com.todo.TodoList.service.TodoExportService;
 import com.todo.TodoList.service.TodoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @CrossOrigin(origins = "*")
@@ -25,18 +44,86 @@ import java.util.List;
 public class TodoController {
 
     private final TodoService todoItemService;
+    private final TodoExportService todoExportService;
+    private final TodoChangeFeed todoChangeFeed;
+
+    @GetMapping
+    @Operation(
+            summary = "Получить страницу списков дел",
+            description = "Возвращает списки дел, упорядоченные по ID, с курсорной (keyset) пагинацией. " +
+                    "Для следующей страницы передайте значение nextCursor из ответа в параметр after. " +
+                    "Задачи не загружаются, пока не указан include=tasks."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Страница успешно получена",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PageDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректные параметры запроса (неверный курсор или limit вне диапазона)",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<PageDto<TodoDto>> getTodoPage(
+            @Parameter(description = "Курсор из поля nextCursor предыдущей страницы", example = "MTAw")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Размер страницы (1-" + TodoService.MAX_PAGE_SIZE + ")", example = "50")
+            @RequestParam(defaultValue = "" + TodoService.DEFAULT_PAGE_SIZE)
+            @Min(1) @Max(TodoService.MAX_PAGE_SIZE) int limit,
+            @Parameter(description = "Дополнительно загружаемые связи. Поддерживается значение tasks", example = "tasks")
+            @RequestParam(required = false) Set<String> include) {
+        boolean includeTasks = include != null && include.contains("tasks");
+        return ResponseEntity.ok(todoItemService.getTodoPage(after, limit, includeTasks));
+    }
+
+    @GetMapping("/summaries")
+    @Operation(
+            summary = "Получить страницу кратких представлений списков дел",
+            description = "Возвращает id, title, completed и прогресс (всего задач / выполнено) для каждого списка дел " +
+                    "без загрузки самих задач. Пагинация такая же, как у GET /api/todos."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Страница успешно получена",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PageDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректные параметры запроса (неверный курсор или limit вне диапазона)",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<PageDto<TodoSummaryDto>> getTodoSummaryPage(
+            @Parameter(description = "Курсор из поля nextCursor предыдущей страницы", example = "MTAw")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Размер страницы (1-" + TodoService.MAX_PAGE_SIZE + ")", example = "50")
+            @RequestParam(defaultValue = "" + TodoService.DEFAULT_PAGE_SIZE)
+            @Min(1) @Max(TodoService.MAX_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(todoItemService.getTodoSummaryPage(after, limit));
+    }
 
     @GetMapping("/todosAll")
     @Operation(
             summary = "Получить все списки дел",
-            description = "Возвращает список всех Todo Items. "
+            description = "Возвращает список всех Todo Items. " +
+                    "Устарело: загружает все списки вместе с задачами, используйте GET /api/todos с пагинацией. " +
+                    "Кроме JSON доступны компактные application/cbor и application/x-jackson-smile (заголовок Accept).",
+            deprecated = true
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Список успешно получен",
-                    content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = TodoDto.class))
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = TodoDto.class)),
+                            @Content(mediaType = "application/cbor", schema = @Schema(implementation = TodoDto.class)),
+                            @Content(mediaType = CompactFormatsConfig.APPLICATION_SMILE_VALUE, schema = @Schema(implementation = TodoDto.class))
+                    }
             ),
             @ApiResponse(
                     responseCode = "400",
@@ -53,11 +140,76 @@ public class TodoController {
         return ResponseEntity.ok(todoItemService.getAllTodos());
     }
 
+    @GetMapping("/export")
+    @Operation(
+            summary = "Выгрузить все списки дел",
+            description = "Потоково выгружает все Todo Items вместе с задачами. " +
+                    "Формат ndjson - один JSON-объект на строку, json - один JSON-массив. " +
+                    "Ответ пишется по мере чтения из БД, поэтому подходит для таблиц любого размера."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Выгрузка успешно сформирована",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson",
+                                    schema = @Schema(implementation = TodoDto.class)),
+                            @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = TodoDto.class))
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Неподдерживаемый формат выгрузки",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<StreamingResponseBody> exportTodos(
+            @Parameter(description = "Формат выгрузки: ndjson или json", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        TodoExportService.Format exportFormat = TodoExportService.Format.fromValue(format);
+        StreamingResponseBody body = out -> todoExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("todos." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Подписаться на изменения списков дел и задач",
+            description = "Server-Sent Events: создание, изменение, переключение и удаление списков дел и задач " +
+                    "публикуются после коммита. Имя события - тип изменения, данные - TodoChangeDto. " +
+                    "При переподключении браузер сам передаёт Last-Event-ID, и пропущенные события досылаются; " +
+                    "если их уже нет в памяти, приходит событие reset - данные нужно перечитать целиком. " +
+                    "Клиент, не успевающий читать события, отключается."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Поток событий открыт",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = TodoChangeDto.class))
+            )
+    })
+    public SseEmitter subscribeToChanges(
+            @Parameter(description = "Только изменения указанного списка дел", example = "1")
+            @RequestParam(required = false) Long todoId,
+            @Parameter(description = "ID последнего полученного события")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return todoChangeFeed.subscribe(todoId, lastEventId);
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Получить список дел по ID",
             description = "Возвращает конкретный Todo Item по его уникальному идентификатору. " +
-                    "Включает все связанные задачи (tasks), если они есть."
+                    "Включает все связанные задачи (tasks), если они есть. " +
+                    "Ответ содержит ETag, который меняется при изменении списка или любой его задачи; " +
+                    "при совпадении If-None-Match возвращается 304 без тела."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -66,6 +218,11 @@ public class TodoController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = TodoDto.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Список дел не изменился с версии из If-None-Match",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Список дел с указанным ID не найден",
@@ -83,8 +240,16 @@ public class TodoController {
                     example = "1",
                     required = true
             )
-            @PathVariable Long id) {
-        return ResponseEntity.ok(todoItemService.getTodoById(id));
+            @PathVariable Long id,
+            @Parameter(hidden = true) ServletWebRequest request) {
+        String eTag = todoItemService.getTodoETag(id);
+        if (ConditionalRequests.checkNotModified(request, eTag)) {
+            // 304 и ETag уже выставлены, DTO не строится
+            return null;
+        }
+        // ETag берётся из возвращаемого DTO: между проверкой и чтением список мог измениться
+        TodoDto todo = todoItemService.getTodoById(id);
+        return ResponseEntity.ok().eTag(TodoService.weakETagOf(todo)).body(todo);
     }
 
     @PostMapping
@@ -113,6 +278,13 @@ public class TodoController {
                     content = @Content
             )
     })
+    @Parameter(
+            name = IdempotencyFilter.HEADER,
+            in = ParameterIn.HEADER,
+            description = "Ключ идемпотентности. Повтор запроса с тем же ключом возвращает сохранённый ответ " +
+                    "без повторного создания (заголовок Idempotent-Replayed: true)",
+            example = "3f6c1c1e-8d3b-4f43-9a53-2b1c7e0f4a11"
+    )
     public ResponseEntity<TodoDto> createTodo(
             @Parameter(
                     description = "Данные для создания нового списка дел",
@@ -128,7 +300,8 @@ public class TodoController {
             summary = "Обновить список дел",
             description = "Полностью обновляет существующий Todo Item по его ID. " +
                     "Все поля должны быть предоставлены в теле запроса. " +
-                    "Если поле не указано, оно будет установлено в значение по умолчанию."
+                    "Если поле не указано, оно будет установлено в значение по умолчанию. " +
+                    "С заголовком If-Match обновление выполняется, только если ETag списка не изменился."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -147,6 +320,16 @@ public class TodoController {
                     description = "Список дел с указанным ID не найден",
                     content = @Content
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Список дел был изменён параллельным запросом",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "ETag из If-Match не совпадает с текущим",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Внутренняя ошибка сервера при обновлении",
@@ -164,8 +347,11 @@ public class TodoController {
                     description = "Обновленные данные списка дел",
                     required = true
             )
-            @Valid @RequestBody TodoDto todoItemDto) {
-        return ResponseEntity.ok(todoItemService.updateTodo(id, todoItemDto));
+            @Valid @RequestBody TodoDto todoItemDto,
+            @Parameter(description = "Сильный ETag из ответа на предыдущее изменение списка дел; слабый ETag (W/) из GET не совпадает - для него передайте version в теле", example = "\"1-3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TodoDto updated = todoItemService.updateTodo(id, todoItemDto, ifMatch);
+        return ResponseEntity.ok().eTag(TodoService.eTagOf(updated)).body(updated);
     }
 
     @DeleteMapping("/{id}")
@@ -206,4 +392,30 @@ public class TodoController {
 
         return ResponseEntity.ok( todoItemService.deleteTodo(id));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/bulk-delete")
+    @Operation(
+            summary = "Массово удалить списки дел",
+            description = "Удаляет списки дел вместе с задачами: либо по списку ids, либо все выполненные списки, " +
+                    "созданные до completedBefore. Удаление идёт порциями в отдельных транзакциях, " +
+                    "поэтому не блокирует таблицы надолго; при ошибке уже удалённые порции не восстанавливаются."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Удаление выполнено",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkDeleteResultDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Не передано ни одно условие или переданы оба",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<BulkDeleteResultDto> deleteTodos(
+            @Parameter(description = "Условие удаления", required = true)
+            @Valid @RequestBody TodoBulkDeleteDto request) {
+        return ResponseEntity.ok(todoItemService.deleteTodos(request));
+    }
+}
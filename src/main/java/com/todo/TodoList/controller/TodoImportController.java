@@ -0,0 +1,76 @@
+package com.todo.TodoList.controller;
+
+import com.todo.TodoList.dto.ImportSummaryDto;
+import com.todo.TodoList.service.TodoImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/todos/import")
+@RequiredArgsConstructor
+@Tag(name = "Todo Import Controller", description = "API для массового импорта списков дел и задач")
+public class TodoImportController {
+
+    private static final String TEXT_CSV = "text/csv";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final TodoImportService todoImportService;
+
+    @PostMapping(consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    @Operation(
+            summary = "Импортировать списки дел и задачи",
+            description = "Потоково загружает CSV (text/csv) или NDJSON (application/x-ndjson) через PostgreSQL COPY. " +
+                    "CSV: обязательный заголовок с колонками todo_key, todo_title, todo_description, todo_completed, " +
+                    "task_title, task_description, task_completed; каждая строка - задача, строки с одинаковым todo_key " +
+                    "относятся к одному списку дел. NDJSON: один объект TodoDto с вложенными tasks на строку. " +
+                    "Записи проверяются по тем же правилам, что и при создании через API; невалидные записи отклоняются. " +
+                    "Импорт выполняется одной транзакцией."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Импорт выполнен, итог в теле ответа",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ImportSummaryDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректный заголовок CSV",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "415",
+                    description = "Неподдерживаемый Content-Type",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Внутренняя ошибка сервера при импорте",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<ImportSummaryDto> importTodos(
+            @Parameter(hidden = true)
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @Parameter(hidden = true)
+            InputStream body) throws IOException {
+        TodoImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))
+                ? TodoImportService.Format.CSV
+                : TodoImportService.Format.NDJSON;
+        return ResponseEntity.ok(todoImportService.importTodos(format, body));
+    }
+}
@@ -0,0 +1,49 @@
+package com.todo.TodoList.diagnostics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.TodoList.repository.ArchivedTaskRepository;
+import com.todo.TodoList.repository.TaskRepository;
+import com.todo.TodoList.repository.TodoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Проверка планов запросов репозиториев при старте приложения.
+ * Включается свойством {@code todo.plan-check.enabled=true}; в обычном запуске не активна.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.plan-check.enabled", havingValue = "true")
+public class QueryPlanCheckConfig {
+
+    /**
+     * Подключается к Hibernate через цепочку инспекторов в {@link SqlMetricsConfig}.
+     */
+    @Bean
+    public QueryPlanRecorder queryPlanRecorder() {
+        return new QueryPlanRecorder();
+    }
+
+    @Bean
+    public QueryPlanVerifier queryPlanVerifier(ApplicationContext applicationContext,
+                                               QueryPlanRecorder recorder,
+                                               JdbcTemplate jdbcTemplate,
+                                               PlatformTransactionManager transactionManager,
+                                               ObjectMapper objectMapper,
+                                               @Value("${todo.plan-check.ignored-methods:}") Set<String> ignoredMethods,
+                                               @Value("${todo.plan-check.large-table-rows:10000}") long largeTableRows,
+                                               @Value("${todo.plan-check.include-unsafe:false}") boolean includeUnsafe) {
+        return new QueryPlanVerifier(applicationContext, recorder, jdbcTemplate,
+                new TransactionTemplate(transactionManager), objectMapper,
+                List.of(TodoRepository.class, TaskRepository.class, ArchivedTaskRepository.class), ignoredMethods, largeTableRows,
+                includeUnsafe);
+    }
+}
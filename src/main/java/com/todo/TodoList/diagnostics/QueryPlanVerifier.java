@@ -0,0 +1,236 @@
+package com.todo.TodoList.diagnostics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Проверка планов запросов всех методов репозиториев.
+ * <p>
+ * На старте приложения каждый объявленный метод репозитория вызывается с тестовыми аргументами
+ * в транзакции, которая затем откатывается; SQL, сгенерированный Hibernate, перехватывается {@link QueryPlanRecorder}.
+ * Для каждого запроса строится generic-план ({@code EXPLAIN (GENERIC_PLAN)}, PostgreSQL 16+),
+ * поэтому результат не зависит от тестовых значений параметров. Если в плане есть Seq Scan по таблице,
+ * в которой больше {@code largeTableRows} строк (по статистике pg_class), запуск приложения прерывается.
+ * <p>
+ * Предназначена для запуска на локальной БД с реалистичным объёмом данных: на пустой таблице
+ * планировщик закономерно выбирает последовательное чтение, а статистика должна быть собрана (ANALYZE).
+ * <p>
+ * Методы, вызов которых опасен для реальной БД, по умолчанию пропускаются ({@code todo.plan-check.include-unsafe}):
+ * изменяющие (@Modifying, нативный UPDATE/DELETE/INSERT, delete*), берущие блокировки строк (@Lock, FOR UPDATE)
+ * и неограниченные выборки всей таблицы (коллекция или поток без параметров, кроме Sort). Даже в откатываемой
+ * транзакции они держат блокировки строк, а полные выборки загружают таблицу в память.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueryPlanVerifier implements ApplicationRunner {
+
+    private static final Pattern WRITE_OR_LOCK = Pattern.compile(
+            "\\b(UPDATE|DELETE|INSERT)\\b|\\bFOR\\s+(NO\\s+KEY\\s+)?(UPDATE|SHARE)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final ApplicationContext applicationContext;
+    private final QueryPlanRecorder recorder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final List<Class<?>> repositories;
+    private final Set<String> ignoredMethods;
+    private final long largeTableRows;
+    private final boolean includeUnsafe;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> violations = new ArrayList<>();
+        for (Class<?> repository : repositories) {
+            Object bean = applicationContext.getBean(repository);
+            for (Method method : repository.getDeclaredMethods()) {
+                String name = repository.getSimpleName() + "." + method.getName();
+                if (method.isDefault() || method.isSynthetic() || Modifier.isStatic(method.getModifiers())
+                        || ignoredMethods.contains(name)) {
+                    continue;
+                }
+                if (!includeUnsafe && isUnsafe(method)) {
+                    log.info("Skipping {} in plan check: modifying, locking or unbounded", name);
+                    continue;
+                }
+                for (String sql : capture(bean, method, name)) {
+                    violations.addAll(verify(name, sql));
+                }
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Sequential scans on large tables detected:\n  "
+                    + String.join("\n  ", violations));
+        }
+        log.info("Query plan check passed for {}", repositories);
+    }
+
+    private static boolean isUnsafe(Method method) {
+        if (method.isAnnotationPresent(Modifying.class) || method.isAnnotationPresent(Lock.class)
+                || method.getName().startsWith("delete") || method.getName().startsWith("remove")) {
+            return true;
+        }
+        Query query = method.getAnnotation(Query.class);
+        if (query != null && WRITE_OR_LOCK.matcher(query.value()).find()) {
+            return true;
+        }
+        Class<?> returnType = method.getReturnType();
+        boolean returnsMany = Iterable.class.isAssignableFrom(returnType) || Stream.class.isAssignableFrom(returnType);
+        return returnsMany && Arrays.stream(method.getParameterTypes()).allMatch(type -> type == Sort.class);
+    }
+
+    /**
+     * Выполняет метод в откатываемой транзакции и возвращает перехваченный SQL.
+     */
+    private List<String> capture(Object bean, Method method, String name) {
+        recorder.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                try {
+                    Object result = method.invoke(bean, sampleArguments(method));
+                    if (result instanceof Stream<?> stream) {
+                        stream.close();
+                    }
+                } catch (ReflectiveOperationException e) {
+                    log.warn("Could not execute {} for plan check: {}", name, e.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            // SQL к этому моменту уже перехвачен и пригоден для EXPLAIN
+            log.warn("Could not execute {} for plan check: {}", name, e.getMessage());
+        }
+        return recorder.stop();
+    }
+
+    /**
+     * Строит generic-план запроса (PostgreSQL 16+) и ищет в нём Seq Scan по большим таблицам.
+     */
+    private List<String> verify(String name, String sql) {
+        List<String> violations = new ArrayList<>();
+        try {
+            String plan = jdbcTemplate.queryForObject(
+                    "EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + toPositionalParameters(sql), String.class);
+            Map<String, Long> seqScans = new LinkedHashMap<>();
+            collectSeqScans(objectMapper.readTree(plan), seqScans);
+            seqScans.forEach((table, rows) -> {
+                if (rows >= largeTableRows) {
+                    violations.add(name + ": Seq Scan on " + table + " (~" + rows + " rows) in " + sql);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Could not explain {}: {}", name, e.getMessage());
+        }
+        return violations;
+    }
+
+    private void collectSeqScans(JsonNode node, Map<String, Long> seqScans) {
+        if (node.isArray()) {
+            node.forEach(child -> collectSeqScans(child, seqScans));
+            return;
+        }
+        if (node.has("Plan")) {
+            collectSeqScans(node.get("Plan"), seqScans);
+            return;
+        }
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            String table = node.path("Relation Name").asText();
+            seqScans.computeIfAbsent(table, this::estimatedRows);
+        }
+        if (node.has("Plans")) {
+            collectSeqScans(node.get("Plans"), seqScans);
+        }
+    }
+
+    private long estimatedRows(String table) {
+        Double rows = jdbcTemplate.queryForObject(
+                "SELECT reltuples::float8 FROM pg_class WHERE relname = ? AND relkind IN ('r', 'p')",
+                Double.class, table);
+        return rows == null ? 0 : rows.longValue();
+    }
+
+    private static Object[] sampleArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            arguments[i] = sampleValue(types[i]);
+        }
+        return arguments;
+    }
+
+    private static Object sampleValue(Class<?> type) {
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 1;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return Boolean.FALSE;
+        }
+        if (type == String.class) {
+            return "a";
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of(1L, 2L);
+        }
+        if (type == Limit.class) {
+            return Limit.of(10);
+        }
+        if (type == Pageable.class) {
+            return PageRequest.ofSize(10);
+        }
+        if (type == Sort.class) {
+            return Sort.by("id");
+        }
+        return null;
+    }
+
+    private static String toPositionalParameters(String sql) {
+        StringBuilder result = new StringBuilder(sql.length() + 16);
+        int index = 0;
+        boolean inLiteral = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                result.append('$').append(++index);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package com.todo.TodoList.diagnostics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.sql.Connection;
+
+/**
+ * Оборачивает пулы Hikari так, чтобы выдаваемые ими соединения считали выражения в {@link SqlStatementCounter}.
+ * Оборачиваются только пулы, а не маршрутизирующие DataSource поверх них, поэтому каждое выражение учитывается один раз.
+ * Прокси наследует HikariDataSource: тип бина для метрик пула и health-check не меняется.
+ */
+@RequiredArgsConstructor
+public class SqlCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlStatementCounter> counter;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource)) {
+            return bean;
+        }
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice((MethodInterceptor) invocation -> {
+            Object result = invocation.proceed();
+            if (result instanceof Connection connection && "getConnection".equals(invocation.getMethod().getName())) {
+                return counter.getObject().wrap(connection);
+            }
+            return result;
+        });
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,71 @@
+package com.todo.TodoList.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Подсчёт SQL-выражений на HTTP-запрос для API списков дел и задач.
+ * Здесь же цепочка StatementInspector для Hibernate (используется проверкой планов запросов).
+ */
+@Configuration
+public class SqlMetricsConfig implements WebMvcConfigurer {
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final int nPlusOneThreshold;
+
+    public SqlMetricsConfig(SqlStatementCounter sqlStatementCounter,
+                            ObjectProvider<MeterRegistry> meterRegistry,
+                            @Value("${todo.metrics.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Bean
+    public static SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    /**
+     * Счёт на уровне пула соединений: учитываются и Hibernate, и JdbcTemplate (поиск, импорт, идемпотентность, outbox).
+     */
+    @Bean
+    public static SqlCountingDataSourcePostProcessor sqlCountingDataSourcePostProcessor(
+            ObjectProvider<SqlStatementCounter> sqlStatementCounter) {
+        return new SqlCountingDataSourcePostProcessor(sqlStatementCounter);
+    }
+
+    /**
+     * Hibernate принимает один StatementInspector, поэтому все бины-инспекторы объединяются в цепочку.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(ObjectProvider<StatementInspector> inspectors) {
+        return properties -> {
+            List<StatementInspector> chain = inspectors.orderedStream().toList();
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                String result = sql;
+                for (StatementInspector inspector : chain) {
+                    result = inspector.inspect(result);
+                }
+                return result;
+            });
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlMetricsInterceptor(sqlStatementCounter, meterRegistry.getObject(), nPlusOneThreshold))
+                .addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,81 @@
+package com.todo.TodoList.diagnostics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Метрики SQL на HTTP-запрос:
+ * <ul>
+ *     <li>{@code todo.http.sql.statements} - количество обращений к БД за запрос (гистограмма по method/uri),
+ *     JDBC-батч считается одним обращением;</li>
+ *     <li>{@code todo.http.sql.n_plus_one} - запросы, в которых одно и то же выражение выполнено по отдельности
+ *     не меньше {@code threshold} раз. Батчи (вставка задач, /api/batch) в этот признак не входят.</li>
+ * </ul>
+ * Асинхронный запрос (SSE, потоковый экспорт) проходит через interceptor дважды; SQL обработчика сохраняется
+ * в атрибут запроса и учитывается вместе с SQL завершающей диспетчеризации одним замером.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String HANDLER_STATEMENTS = SqlMetricsInterceptor.class.getName() + ".statements";
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+    private final int threshold;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        counter.start();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Потоковые ответы дописываются в другом потоке; SQL обработчика дождётся завершающей диспетчеризации
+        request.setAttribute(HANDLER_STATEMENTS, counter.stop());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Map<String, SqlStatementCounter.Executions> statements = counter.stop();
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                && request.getAttribute(HANDLER_STATEMENTS) instanceof Map<?, ?> handlerStatements) {
+            statements = SqlStatementCounter.merge((Map<String, SqlStatementCounter.Executions>) handlerStatements, statements);
+            request.removeAttribute(HANDLER_STATEMENTS);
+        }
+        record(request, statements);
+    }
+
+    private void record(HttpServletRequest request, Map<String, SqlStatementCounter.Executions> statements) {
+        String method = request.getMethod();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        int total = statements.values().stream().mapToInt(SqlStatementCounter.Executions::total).sum();
+        DistributionSummary.builder("todo.http.sql.statements")
+                .description("SQL round trips per HTTP request")
+                .baseUnit("statements")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(total);
+
+        statements.forEach((sql, executions) -> {
+            if (executions.single() >= threshold) {
+                meterRegistry.counter("todo.http.sql.n_plus_one", "method", method, "uri", uri).increment();
+                log.warn("Possible N+1 in {} {}: {} executions of {}", method, uri, executions.single(), sql);
+            }
+        });
+    }
+}
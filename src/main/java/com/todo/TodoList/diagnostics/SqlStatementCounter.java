@@ -0,0 +1,127 @@
+package com.todo.TodoList.diagnostics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Считает SQL-выражения, выполненные в текущем потоке за время обработки запроса.
+ * Счёт ведётся на уровне JDBC ({@link #wrap(Connection)}), поэтому учитываются и Hibernate, и JdbcTemplate.
+ * Одинаковый текст запроса с разными параметрами учитывается под одним ключом - это и есть признак N+1;
+ * JDBC-батч (executeBatch) считается одним обращением к БД отдельно от одиночных выполнений.
+ */
+public class SqlStatementCounter {
+
+    /**
+     * Выполнения одного текста SQL: одиночные и батчами.
+     */
+    public static final class Executions {
+        private int single;
+        private int batches;
+
+        public int single() {
+            return single;
+        }
+
+        public int batches() {
+            return batches;
+        }
+
+        public int total() {
+            return single + batches;
+        }
+
+        void add(Executions other) {
+            single += other.single;
+            batches += other.batches;
+        }
+    }
+
+    private final ThreadLocal<Map<String, Executions>> statements = new ThreadLocal<>();
+
+    public void start() {
+        statements.set(new HashMap<>());
+    }
+
+    public Map<String, Executions> stop() {
+        Map<String, Executions> counts = statements.get();
+        statements.remove();
+        return counts == null ? Map.of() : counts;
+    }
+
+    /**
+     * Складывает два снимка: SQL обработчика и SQL асинхронной диспетчеризации того же запроса.
+     */
+    public static Map<String, Executions> merge(Map<String, Executions> first, Map<String, Executions> second) {
+        Map<String, Executions> merged = new HashMap<>(first);
+        second.forEach((sql, executions) -> merged.computeIfAbsent(sql, key -> new Executions()).add(executions));
+        return merged;
+    }
+
+    /**
+     * Соединение, выражения которого учитываются счётчиком потока, выполняющего их.
+     */
+    public Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                        return wrap(statement, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Object wrap(Statement statement, Class<?> type, String preparedSql) {
+        InvocationHandler handler = new InvocationHandler() {
+            // Для Statement.addBatch(String) ключом батча служит первый добавленный текст
+            private String batchSql = preparedSql;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String argumentSql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                switch (method.getName()) {
+                    case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate" ->
+                            record(argumentSql != null ? argumentSql : preparedSql, false);
+                    case "addBatch" -> {
+                        if (batchSql == null) {
+                            batchSql = argumentSql;
+                        }
+                    }
+                    case "executeBatch", "executeLargeBatch" -> record(batchSql, true);
+                    default -> {
+                    }
+                }
+                return SqlStatementCounter.invoke(statement, method, args);
+            }
+        };
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private void record(String sql, boolean batch) {
+        Map<String, Executions> counts = statements.get();
+        if (counts == null || sql == null) {
+            return;
+        }
+        Executions executions = counts.computeIfAbsent(sql, key -> new Executions());
+        if (batch) {
+            executions.batches++;
+        } else {
+            executions.single++;
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Одна операция пакетного запроса POST /api/batch")
+public class BatchOperationDto {
+
+    public enum Type {
+        CREATE_TODO,
+        UPDATE_TODO,
+        DELETE_TODO,
+        CREATE_TASK,
+        UPDATE_TASK,
+        TOGGLE_TASK,
+        DELETE_TASK
+    }
+
+    @Schema(description = "Тип операции", example = "CREATE_TASK", required = true)
+    @NotNull(message = "Operation type is required")
+    private Type op;
+
+    @Schema(description = "Временный идентификатор создаваемого объекта, назначенный клиентом. " +
+            "Последующие операции пакета ссылаются на него через todoRef/taskRef", example = "tmp-1")
+    private String ref;
+
+    @Schema(description = "ID существующего списка дел; для операций с задачами - список, которому принадлежит задача", example = "1")
+    private Long todoId;
+
+    @Schema(description = "Временный идентификатор списка дел, созданного ранее в этом пакете (вместо todoId)", example = "tmp-1")
+    private String todoRef;
+
+    @Schema(description = "ID существующей задачи", example = "10")
+    private Long taskId;
+
+    @Schema(description = "Временный идентификатор задачи, созданной ранее в этом пакете (вместо taskId)", example = "tmp-2")
+    private String taskRef;
+
+    @Schema(description = "Данные списка дел для CREATE_TODO и UPDATE_TODO")
+    @Valid
+    private TodoDto todo;
+
+    @Schema(description = "Данные задачи для CREATE_TASK и UPDATE_TASK")
+    @Valid
+    private TaskDto task;
+}
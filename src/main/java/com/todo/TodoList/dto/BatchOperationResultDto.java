@@ -0,0 +1,33 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат одной операции пакета")
+public class BatchOperationResultDto {
+
+    @Schema(description = "Позиция операции в запросе (с нуля)", example = "0")
+    private int index;
+
+    @Schema(description = "Тип операции", example = "CREATE_TASK")
+    private BatchOperationDto.Type op;
+
+    @Schema(description = "Временный идентификатор из запроса, если он был передан", example = "tmp-2", nullable = true)
+    private String ref;
+
+    @Schema(description = "Постоянный ID затронутого списка дел или задачи", example = "10")
+    private Long id;
+
+    @Schema(description = "Состояние списка дел сразу после операции (задачи - только при создании); version - итоговая после пакета. " +
+            "null для операций с задачами и удалений", nullable = true)
+    private TodoDto todo;
+
+    @Schema(description = "Состояние задачи сразу после операции; version - итоговая после пакета. " +
+            "null для операций со списками и удалений", nullable = true)
+    private TaskDto task;
+}
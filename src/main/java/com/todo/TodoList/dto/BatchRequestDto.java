@@ -0,0 +1,26 @@
+package com.todo.TodoList.dto;
+
+import com.todo.TodoList.service.BatchService;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Упорядоченный список операций над списками дел и задачами, выполняемых в одной транзакции")
+public class BatchRequestDto {
+
+    @Schema(description = "Операции в порядке выполнения", required = true)
+    @NotEmpty(message = "Operations must not be empty")
+    @Size(max = BatchService.MAX_OPERATIONS, message = "Batch must not exceed " + BatchService.MAX_OPERATIONS + " operations")
+    @Valid
+    private List<@NotNull BatchOperationDto> operations;
+}
@@ -0,0 +1,18 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результаты пакетного запроса в порядке операций")
+public class BatchResultDto {
+
+    @Schema(description = "Результат по каждой операции")
+    private List<BatchOperationResultDto> results;
+}
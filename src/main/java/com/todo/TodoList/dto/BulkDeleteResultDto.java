@@ -0,0 +1,15 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат массового удаления")
+public class BulkDeleteResultDto {
+    @Schema(description = "Количество удалённых списков дел", example = "250")
+    private long deleted;
+}
@@ -0,0 +1,21 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ошибка импорта отдельной записи")
+public class ImportErrorDto {
+
+    public static final int MAX_REPORTED = 100;
+
+    @Schema(description = "Номер строки во входном файле (с единицы)", example = "42")
+    private long line;
+
+    @Schema(description = "Описание ошибки", example = "title: Title cannot be empty")
+    private String message;
+}
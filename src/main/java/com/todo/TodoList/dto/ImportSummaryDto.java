@@ -0,0 +1,26 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Итог массового импорта списков дел и задач")
+public class ImportSummaryDto {
+    @Schema(description = "Количество импортированных списков дел", example = "1000")
+    private long todosImported;
+
+    @Schema(description = "Количество импортированных задач", example = "250000")
+    private long tasksImported;
+
+    @Schema(description = "Количество отклонённых записей (списков дел и задач)", example = "3")
+    private long rejected;
+
+    @Schema(description = "Ошибки по отклонённым записям (не более первых " + ImportErrorDto.MAX_REPORTED + ")")
+    private List<ImportErrorDto> errors;
+}
@@ -0,0 +1,21 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Страница результатов с курсорной (keyset) пагинацией")
+public class PageDto<T> {
+    @Schema(description = "Элементы текущей страницы")
+    private List<T> items;
+
+    @Schema(description = "Непрозрачный курсор следующей страницы. Передаётся в параметр after; null, если страница последняя",
+            example = "MTAw", nullable = true)
+    private String nextCursor;
+}
@@ -0,0 +1,37 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат полнотекстового поиска: список дел или задача")
+public class SearchResultDto {
+
+    public enum Type {
+        TODO,
+        TASK
+    }
+
+    @Schema(description = "Тип найденного объекта", example = "TASK")
+    private Type type;
+
+    @Schema(description = "ID списка дел или задачи", example = "10")
+    private Long id;
+
+    @Schema(description = "ID списка дел (для задачи - списка, которому она принадлежит)", example = "1")
+    private Long todoId;
+
+    @Schema(description = "Название", example = "Купить молоко")
+    private String title;
+
+    @Schema(description = "Релевантность; результаты упорядочены по убыванию", example = "0.6079271")
+    private float rank;
+
+    @Schema(description = "Фрагменты названия и описания с найденными словами в <mark>...</mark>",
+            example = "<mark>Купить</mark> <mark>молоко</mark> 2 литра")
+    private String snippet;
+}
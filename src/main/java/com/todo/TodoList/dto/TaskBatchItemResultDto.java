@@ -0,0 +1,32 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат создания одной задачи в пакете")
+public class TaskBatchItemResultDto {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    @Schema(description = "Позиция задачи в теле запроса (с нуля)", example = "0")
+    private int index;
+
+    @Schema(description = "Итог обработки задачи", example = "CREATED")
+    private Status status;
+
+    @Schema(description = "Созданная задача; null, если задача отклонена", nullable = true)
+    private TaskDto task;
+
+    @Schema(description = "Ошибки валидации; пустой список, если задача создана")
+    private List<String> errors;
+}
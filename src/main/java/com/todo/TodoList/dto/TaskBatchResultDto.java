@@ -0,0 +1,23 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат пакетного создания задач")
+public class TaskBatchResultDto {
+    @Schema(description = "Количество созданных задач", example = "498")
+    private int created;
+
+    @Schema(description = "Количество отклонённых задач", example = "2")
+    private int rejected;
+
+    @Schema(description = "Результаты по каждой задаче в порядке запроса")
+    private List<TaskBatchItemResultDto> results;
+}
@@ -0,0 +1,21 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "DTO для массовой смены статуса выполнения задач")
+public class TaskCompletionUpdateDto {
+    @Schema(description = "Новый статус выполнения", example = "true", required = true)
+    @NotNull(message = "Completed flag must be provided")
+    private Boolean completed;
+
+    @Schema(description = "Идентификаторы задач для обновления. Если не переданы - обновляются все задачи списка дел",
+            example = "[1, 2, 3]", nullable = true)
+    @Size(max = 10000, message = "No more than 10000 task ids per request")
+    private List<Long> taskIds;
+}
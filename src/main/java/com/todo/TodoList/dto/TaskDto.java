@@ -3,10 +3,14 @@ package com.todo.TodoList.dto;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 @Schema(description = "DTO для представления задачи (Task)")
 public class TaskDto {
     @Schema(description = "Уникальный идентификатор задачи", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
@@ -29,4 +33,8 @@ public class TaskDto {
 
     @Schema(description = "Идентификатор списка дел, к которому принадлежит задача", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long todoItemId;
+
+    @Schema(description = "Версия задачи. Если передана при обновлении и не совпадает с текущей, возвращается 409",
+            example = "3")
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+@Schema(description = "Фильтры и сортировка задач списка дел")
+public class TaskFilterDto {
+
+    public enum SortField {
+        ID,
+        CREATED_AT,
+        TITLE
+    }
+
+    public enum Direction {
+        ASC,
+        DESC
+    }
+
+    @Schema(description = "Только выполненные (true) или невыполненные (false) задачи", example = "false")
+    private Boolean completed;
+
+    @Schema(description = "Созданы не раньше (включительно)", example = "2024-01-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @Schema(description = "Созданы раньше (не включительно)", example = "2024-02-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    @Schema(description = "Начало названия, без учёта регистра", example = "куп")
+    @Size(max = 255, message = "Title prefix must be less than 255 characters")
+    private String titlePrefix;
+
+    @Schema(description = "Поле сортировки", example = "CREATED_AT", defaultValue = "ID")
+    private SortField sort = SortField.ID;
+
+    @Schema(description = "Направление сортировки", example = "DESC", defaultValue = "ASC")
+    private Direction direction = Direction.ASC;
+}
@@ -0,0 +1,20 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Schema(description = "Условие массового удаления списков дел: либо ids, либо completedBefore")
+public class TodoBulkDeleteDto {
+    @Schema(description = "Идентификаторы удаляемых списков дел", example = "[1, 2, 3]", nullable = true)
+    @Size(max = 10000, message = "No more than 10000 todo ids per request")
+    private List<Long> ids;
+
+    @Schema(description = "Удалить все выполненные списки дел, созданные до этого момента",
+            example = "2024-01-01T00:00:00", nullable = true)
+    private LocalDateTime completedBefore;
+}
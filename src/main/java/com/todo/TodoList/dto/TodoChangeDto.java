@@ -0,0 +1,37 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Событие изменения списка дел или его задач")
+public class TodoChangeDto {
+
+    public enum Type {
+        TODO_CREATED,
+        TODO_UPDATED,
+        TODO_DELETED,
+        TASK_CREATED,
+        TASK_UPDATED,
+        TASK_TOGGLED,
+        TASK_DELETED,
+        /** Массовое изменение задач списка; клиенту следует перечитать задачи */
+        TASKS_CHANGED
+    }
+
+    @Schema(description = "Тип изменения", example = "TASK_TOGGLED")
+    private Type type;
+
+    @Schema(description = "ID списка дел", example = "1")
+    private Long todoId;
+
+    @Schema(description = "ID задачи (для событий задач)", example = "10")
+    private Long taskId;
+
+    @Schema(description = "Новое состояние: TodoDto без задач или TaskDto; отсутствует для удалений и массовых изменений")
+    private Object data;
+}
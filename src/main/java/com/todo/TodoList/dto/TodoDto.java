@@ -31,6 +31,16 @@ public class TodoDto {
     @Schema(description = "Дата и время создания списка дел", example = "2024-01-15T10:30:00", accessMode = Schema.AccessMode.READ_ONLY)
     private LocalDateTime createdAt;
 
+    @Schema(description = "Общее количество задач, включая архивные", example = "12", accessMode = Schema.AccessMode.READ_ONLY)
+    private long taskCount;
+
+    @Schema(description = "Количество выполненных задач, включая архивные", example = "5", accessMode = Schema.AccessMode.READ_ONLY)
+    private long completedTaskCount;
+
+    @Schema(description = "Версия списка дел. Если передана при обновлении и не совпадает с текущей, возвращается 409",
+            example = "3")
+    private Long version;
+
     @Schema(description = "Список задач, принадлежащих данному списку дел. Опционально при создании - если переданы, будут созданы вместе со списком дел.")
     private List<TaskDto> tasks;
 }
\ No newline at end of file
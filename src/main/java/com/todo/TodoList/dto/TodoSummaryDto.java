@@ -0,0 +1,27 @@
+package com.todo.TodoList.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Краткое представление списка дел для списочных экранов: без задач, с прогрессом выполнения")
+public class TodoSummaryDto {
+    @Schema(description = "Уникальный идентификатор списка дел", example = "1")
+    private Long id;
+
+    @Schema(description = "Название списка дел", example = "Покупки на неделю")
+    private String title;
+
+    @Schema(description = "Статус выполнения списка дел", example = "false")
+    private boolean completed;
+
+    @Schema(description = "Общее количество задач, включая архивные", example = "12")
+    private long taskCount;
+
+    @Schema(description = "Количество выполненных задач, включая архивные", example = "5")
+    private long completedTaskCount;
+}
@@ -1,13 +1,18 @@
 package com.todo.TodoList.entity;
 
+import com.todo.TodoList.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.TODO_ITEMS_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,7 +20,8 @@ import java.util.List;
 @Table(name = "todo_items")
 public class TodoItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_items_id_seq")
+    @SequenceGenerator(name = "todo_items_id_seq", sequenceName = "todo_items_id_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -24,9 +30,21 @@ public class TodoItem {
 
     private boolean completed;
 
+    @Version
+    private Long version;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Счётчики меняются только атомарными UPDATE (TodoRepository.adjustTaskCounters), не через dirty-check;
+    // тот же UPDATE увеличивает version, запись в кэше второго уровня при этом вытесняет HibernateCacheEvictor
+    @Column(name = "task_count", updatable = false)
+    private long taskCount;
+
+    @Column(name = "completed_task_count", updatable = false)
+    private long completedTaskCount;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.TODO_TASKS_REGION)
     @OneToMany(mappedBy = "todoItem", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Task> tasks = new ArrayList<>();
 
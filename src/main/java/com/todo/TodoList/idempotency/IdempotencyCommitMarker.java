@@ -0,0 +1,54 @@
+package com.todo.TodoList.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Отмечает ключ идемпотентности текущего запроса зафиксированным в каждой изменяющей транзакции этого запроса,
+ * перед её коммитом. Если после коммита сохранить ответ не удастся, ключ не освободится
+ * и повтор не выполнит изменение второй раз.
+ * <p>
+ * Spring Boot регистрирует бин в менеджере транзакций, поэтому отметка охватывает и {@code @Transactional},
+ * и {@code TransactionTemplate}.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyCommitMarker implements TransactionExecutionListener {
+
+    private static final ThreadLocal<String> CURRENT_KEY = new ThreadLocal<>();
+
+    private final IdempotencyStore store;
+
+    @Value("${todo.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    static void bind(String key) {
+        CURRENT_KEY.set(key);
+    }
+
+    static void clear() {
+        CURRENT_KEY.remove();
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        String key = CURRENT_KEY.get();
+        if (key == null || beginFailure != null || transaction.isReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                store.markCommitted(key, ttl);
+            }
+        });
+    }
+}
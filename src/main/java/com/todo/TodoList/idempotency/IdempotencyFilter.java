@@ -0,0 +1,174 @@
+package com.todo.TodoList.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.TodoList.service.DatabaseBusyException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Поддержка заголовка Idempotency-Key для POST/PUT/PATCH.
+ * <p>
+ * Первый запрос с ключом захватывает его и выполняется; успешный (2xx) ответ сохраняется на {@code ttl}.
+ * Повтор с тем же ключом и тем же запросом (метод, путь, If-Match, тело) получает сохранённый ответ без повторного
+ * выполнения и с заголовком {@code Idempotent-Replayed: true}. Повтор во время выполнения первого запроса
+ * получает 409, тот же ключ с другим запросом - 422. Неуспешный ответ ключ освобождает, если изменение
+ * не было зафиксировано ({@link IdempotencyCommitMarker}); иначе повтор получает 409 без повторного выполнения.
+ */
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final long maxBodySize;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !METHODS.contains(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeProblem(response, HttpStatus.BAD_REQUEST,
+                    HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters long");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes((int) Math.min(maxBodySize + 1, Integer.MAX_VALUE));
+        if (body.length > maxBodySize) {
+            writeProblem(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Requests with " + HEADER + " are limited to " + maxBodySize + " bytes");
+            return;
+        }
+        byte[] requestHash = hash(request, body);
+
+        try {
+            if (!store.claim(key, requestHash)) {
+                replayOrReject(key, requestHash, response);
+                return;
+            }
+        } catch (DatabaseBusyException e) {
+            // Фильтр работает до DispatcherServlet, поэтому ApiExceptionHandler это исключение не увидит
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            writeProblem(response, HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+            return;
+        }
+
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        IdempotencyCommitMarker.bind(key);
+        try {
+            chain.doFilter(new CachedBodyRequest(request, body), cachingResponse);
+            int status = cachingResponse.getStatus();
+            if (status >= 200 && status < 300) {
+                store.complete(key, status, cachingResponse.getContentType(),
+                        cachingResponse.getHeader(HttpHeaders.ETAG), cachingResponse.getContentAsByteArray(), ttl);
+                stored = true;
+            }
+        } finally {
+            IdempotencyCommitMarker.clear();
+            if (!stored) {
+                store.release(key);
+            }
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private void replayOrReject(String key, byte[] requestHash, HttpServletResponse response) throws IOException {
+        Optional<IdempotencyStore.StoredResponse> found = store.find(key);
+        if (found.isEmpty()) {
+            // Ключ освободили между захватом и чтением: первый запрос завершился ошибкой
+            writeConflict(response);
+            return;
+        }
+        IdempotencyStore.StoredResponse stored = found.get();
+        if (!Arrays.equals(stored.requestHash(), requestHash)) {
+            writeProblem(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " has already been used for a different request");
+            return;
+        }
+        if (stored.statusCode() == null && stored.committed()) {
+            writeProblem(response, HttpStatus.CONFLICT,
+                    "A request with this " + HEADER + " has already been processed, but its response is not available");
+            return;
+        }
+        if (stored.statusCode() == null) {
+            writeConflict(response);
+            return;
+        }
+
+        response.setStatus(stored.statusCode());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.etag() != null) {
+            response.setHeader(HttpHeaders.ETAG, stored.etag());
+        }
+        if (stored.body() != null) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void writeConflict(HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        writeProblem(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still being processed");
+    }
+
+    private void writeProblem(HttpServletResponse response, HttpStatus status, String detail) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ProblemDetail.forStatusAndDetail(status, detail));
+    }
+
+    private static byte[] hash(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            if (request.getQueryString() != null) {
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            // Предусловие - часть запроса: повтор с другим If-Match под тем же ключом получает 422, а не чужой ответ.
+            // Без заголовка хэш не меняется, поэтому уже сохранённые ключи остаются действительными
+            String ifMatch = request.getHeader(HttpHeaders.IF_MATCH);
+            if (ifMatch != null) {
+                digest.update(ifMatch.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return digest.digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.todo.TodoList.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранилище ключей идемпотентности в таблице idempotency_keys. Каждый вызов - отдельный автокоммит,
+ * поэтому захват ключа виден параллельным повторам сразу, ещё до выполнения запроса.
+ * Исключение - {@link #markCommitted}: он выполняется в транзакции самого изменения.
+ * <p>
+ * Пока запрос выполняется, срок его захвата периодически продлевается ({@code todo.idempotency.heartbeat-interval}),
+ * поэтому долгий запрос (например, импорт) не захватывается повторно; после падения экземпляра захват
+ * истекает через {@code processing-timeout}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyStore {
+
+    /**
+     * Новый ключ или просроченная строка (ответ устарел либо выполнение "зависло") захватываются;
+     * живой ключ остаётся как есть.
+     */
+    private static final String CLAIM = """
+            INSERT INTO idempotency_keys (idempotency_key, request_hash, expires_at)
+            VALUES (?, ?, now() + make_interval(secs => ?))
+            ON CONFLICT (idempotency_key) DO UPDATE
+            SET request_hash = EXCLUDED.request_hash,
+                status_code = NULL,
+                content_type = NULL,
+                etag = NULL,
+                response_body = NULL,
+                committed = false,
+                expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at < now()
+            """;
+
+    private static final String FIND =
+            "SELECT request_hash, status_code, content_type, etag, response_body, committed FROM idempotency_keys "
+                    + "WHERE idempotency_key = ?";
+
+    /**
+     * Зафиксированное изменение держит ключ весь ttl, как и сохранённый ответ.
+     */
+    private static final String MARK_COMMITTED = """
+            UPDATE idempotency_keys
+            SET committed = true, expires_at = now() + make_interval(secs => ?)
+            WHERE idempotency_key = ? AND NOT committed
+            """;
+
+    // Строки, заблокированные транзакцией изменения (markCommitted), пропускаются: их срок уже продлён
+    private static final String EXTEND = """
+            UPDATE idempotency_keys
+            SET expires_at = now() + make_interval(secs => ?)
+            WHERE idempotency_key IN (
+                SELECT idempotency_key FROM idempotency_keys
+                WHERE idempotency_key = ANY(?) AND status_code IS NULL AND NOT committed
+                FOR UPDATE SKIP LOCKED
+            )
+            """;
+
+    private static final String COMPLETE = """
+            UPDATE idempotency_keys
+            SET status_code = ?, content_type = ?, etag = ?, response_body = ?, expires_at = now() + make_interval(secs => ?)
+            WHERE idempotency_key = ?
+            """;
+
+    private static final String RELEASE =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status_code IS NULL AND NOT committed";
+
+    private static final String DELETE_EXPIRED = """
+            DELETE FROM idempotency_keys
+            WHERE idempotency_key IN (
+                SELECT idempotency_key FROM idempotency_keys WHERE expires_at < now() LIMIT ?
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Ключи запросов, выполняющихся на этом экземпляре
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${todo.idempotency.cleanup-batch-size:1000}")
+    private int cleanupBatchSize;
+
+    @Value("${todo.idempotency.processing-timeout:1m}")
+    private Duration processingTimeout;
+
+    /**
+     * @param statusCode null, пока запрос с этим ключом выполняется или если ответ не удалось сохранить
+     * @param committed  изменение запроса зафиксировано; такой запрос не выполняется повторно
+     */
+    public record StoredResponse(byte[] requestHash, Integer statusCode, String contentType, String etag, byte[] body,
+                                 boolean committed) {
+    }
+
+    /**
+     * @return true, если ключ захвачен этим запросом и его нужно выполнить
+     */
+    public boolean claim(String key, byte[] requestHash) {
+        boolean claimed = jdbcTemplate.update(CLAIM, key, requestHash, (double) processingTimeout.toSeconds()) == 1;
+        if (claimed) {
+            inFlight.add(key);
+        }
+        return claimed;
+    }
+
+    public Optional<StoredResponse> find(String key) {
+        return jdbcTemplate.query(FIND, (rs, rowNum) -> new StoredResponse(
+                rs.getBytes("request_hash"),
+                rs.getObject("status_code", Integer.class),
+                rs.getString("content_type"),
+                rs.getString("etag"),
+                rs.getBytes("response_body"),
+                rs.getBoolean("committed")), key).stream().findFirst();
+    }
+
+    public void complete(String key, int statusCode, String contentType, String etag, byte[] body, Duration ttl) {
+        inFlight.remove(key);
+        jdbcTemplate.update(COMPLETE, statusCode, contentType, etag, body, (double) ttl.toSeconds(), key);
+    }
+
+    /**
+     * Отмечает, что изменение запроса зафиксировано. Вызывается перед коммитом, в транзакции изменения.
+     */
+    public void markCommitted(String key, Duration ttl) {
+        jdbcTemplate.update(MARK_COMMITTED, (double) ttl.toSeconds(), key);
+    }
+
+    /**
+     * Освобождает ключ неуспешного запроса, чтобы повтор выполнился заново.
+     * Ключ запроса, изменение которого уже зафиксировано, не освобождается.
+     */
+    public void release(String key) {
+        inFlight.remove(key);
+        jdbcTemplate.update(RELEASE, key);
+    }
+
+    @Scheduled(fixedDelayString = "${todo.idempotency.heartbeat-interval:20s}")
+    public void extendInFlight() {
+        if (inFlight.isEmpty()) {
+            return;
+        }
+        String[] keys = inFlight.toArray(String[]::new);
+        jdbcTemplate.update(EXTEND, ps -> {
+            ps.setDouble(1, processingTimeout.toSeconds());
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", keys));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${todo.idempotency.cleanup-interval:5m}")
+    public void deleteExpired() {
+        long deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(DELETE_EXPIRED, cleanupBatchSize);
+            deleted += batch;
+        } while (batch == cleanupBatchSize);
+        if (deleted > 0) {
+            log.debug("Deleted {} expired idempotency key(s)", deleted);
+        }
+    }
+}
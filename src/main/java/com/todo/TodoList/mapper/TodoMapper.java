@@ -11,8 +11,15 @@ public interface TodoMapper {
 
     TodoDto toDto(TodoItem todoItem);
 
+    @Named("withoutTasks")
+    @Mapping(target = "tasks", ignore = true)
+    TodoDto toDtoWithoutTasks(TodoItem todoItem);
+
     @Mapping(target = "tasks", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "taskCount", ignore = true)
+    @Mapping(target = "completedTaskCount", ignore = true)
     TodoItem toEntity(TodoDto todoItemDto);
 
     @Mapping(target = "todoItemId", source = "todoItem.id")
@@ -20,17 +27,22 @@ public interface TodoMapper {
 
     @Mapping(target = "todoItem", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Task toEntity(TaskDto taskDto);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "tasks", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "taskCount", ignore = true)
+    @Mapping(target = "completedTaskCount", ignore = true)
     void updateEntityFromDto(TodoDto dto, @MappingTarget TodoItem entity);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "todoItem", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateTaskFromDto(TaskDto dto, @MappingTarget Task entity);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.todo.TodoList.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Выбор получателя событий outbox свойством {@code todo.outbox.publisher}: memory (по умолчанию) или file.
+ * Для брокера сообщений достаточно объявить свой бин {@link OutboxPublisher} и задать другое значение свойства.
+ * Реле ({@link OutboxRelay}) и запись событий ({@link OutboxWriter}) по умолчанию выключены: с получателем memory
+ * реле удаляло бы события из таблицы, сохраняя только последние из них в памяти.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "todo.outbox.publisher", havingValue = "memory", matchIfMissing = true)
+    public OutboxPublisher inMemoryOutboxPublisher(@Value("${todo.outbox.memory.capacity:10000}") int capacity) {
+        return new InMemoryOutboxPublisher(capacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "todo.outbox.publisher", havingValue = "file")
+    public OutboxPublisher fileOutboxPublisher(@Value("${todo.outbox.file.path}") Path path,
+                                               ObjectMapper objectMapper) {
+        return new FileOutboxPublisher(path, objectMapper);
+    }
+}
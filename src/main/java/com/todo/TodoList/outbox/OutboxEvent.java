@@ -0,0 +1,14 @@
+package com.todo.TodoList.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие из таблицы outbox_events.
+ *
+ * @param aggregateId ID списка дел; порядок событий гарантируется в пределах одного aggregateId
+ * @param payload     TodoChangeDto в JSON
+ */
+public record OutboxEvent(long id, long aggregateId, String type, @JsonRawValue String payload, LocalDateTime createdAt) {
+}
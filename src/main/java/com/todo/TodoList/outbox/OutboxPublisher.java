@@ -0,0 +1,15 @@
+package com.todo.TodoList.outbox;
+
+import java.util.List;
+
+/**
+ * Получатель событий outbox (брокер сообщений, файл, память).
+ * <p>
+ * События передаются в порядке id; события одного списка дел никогда не передаются
+ * параллельно или вне порядка: их id выделяются под блокировкой строки списка, то есть в порядке коммитов. Доставка "как минимум один раз": если транзакция реле
+ * не зафиксируется после успешного вызова, тот же пакет будет передан повторно.
+ */
+public interface OutboxPublisher {
+
+    void publish(List<OutboxEvent> events) throws Exception;
+}
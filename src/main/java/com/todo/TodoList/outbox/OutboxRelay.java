@@ -0,0 +1,116 @@
+package com.todo.TodoList.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Пересылает события из outbox_events в {@link OutboxPublisher} и удаляет отправленные.
+ * <p>
+ * События разбиты на {@code partitions} партиций по aggregate_id ({@code partition_key}, индекс (partition_key, id)). Партицию обрабатывает не больше
+ * одного экземпляра приложения одновременно (pg_try_advisory_xact_lock); id событий одного списка дел
+ * выделяются в порядке коммитов ({@link OutboxWriter}), поэтому выборка по id сохраняет их порядок.
+ * Разные партиции разбираются параллельно разными экземплярами.
+ * Строки пакета выбираются с FOR UPDATE SKIP LOCKED и удаляются в той же транзакции после отправки.
+ * <p>
+ * Включается явно ({@code todo.outbox.relay.enabled}) вместе с реальным получателем: реле удаляет
+ * отправленные события из таблицы, а получатель memory хранит лишь последние из них в памяти.
+ * Тем же свойством включается {@link OutboxWriter}, поэтому при выключенном реле таблица не растёт.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.outbox.relay.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private static final int LOCK_NAMESPACE = 0x0b0c;
+
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_xact_lock(?, ?)";
+
+    private static final String CLAIM = """
+            SELECT id, aggregate_id, event_type, payload::text AS payload, created_at
+            FROM outbox_events
+            WHERE partition_key = ?
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String DELETE = "DELETE FROM outbox_events WHERE id = ANY(?)";
+
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"),
+            rs.getLong("aggregate_id"),
+            rs.getString("event_type"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxPublisher publisher;
+    private final Counter published;
+    private final int partitions;
+    private final int batchSize;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       OutboxPublisher publisher,
+                       MeterRegistry meterRegistry,
+                       @Value("${todo.outbox.relay.partitions:16}") int partitions,
+                       @Value("${todo.outbox.relay.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.publisher = publisher;
+        this.published = Counter.builder("todo.outbox.published")
+                .description("Outbox events handed to the publisher")
+                .register(meterRegistry);
+        this.partitions = partitions;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${todo.outbox.relay.poll-interval:200ms}")
+    public void relay() {
+        for (int partition = 0; partition < partitions; partition++) {
+            int current = partition;
+            try {
+                Integer relayed;
+                // Полный пакет - вероятно, есть ещё; разбираем партицию до конца
+                do {
+                    relayed = transactionTemplate.execute(status -> relayBatch(current));
+                } while (relayed != null && relayed == batchSize);
+            } catch (RuntimeException e) {
+                log.warn("Outbox relay failed for partition {}, will retry: {}", current, e.getMessage());
+            }
+        }
+    }
+
+    private int relayBatch(int partition) {
+        Boolean locked = jdbcTemplate.queryForObject(TRY_LOCK, Boolean.class, LOCK_NAMESPACE, partition);
+        if (!Boolean.TRUE.equals(locked)) {
+            return 0;
+        }
+        List<OutboxEvent> events = jdbcTemplate.query(CLAIM, ROW_MAPPER, partition, batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            publisher.publish(events);
+        } catch (Exception e) {
+            throw new IllegalStateException("Outbox publisher rejected " + events.size() + " event(s)", e);
+        }
+
+        Long[] ids = events.stream().map(OutboxEvent::id).toArray(Long[]::new);
+        jdbcTemplate.update(DELETE, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)));
+        published.increment(events.size());
+        return events.size();
+    }
+}
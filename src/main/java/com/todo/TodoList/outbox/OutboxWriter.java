@@ -0,0 +1,54 @@
+package com.todo.TodoList.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.TodoList.dto.TodoChangeDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Записывает события изменений TodoService/TaskService в outbox_events
+ * в той же транзакции, что и само изменение: перед коммитом, тем же соединением.
+ * <p>
+ * Перед вставкой берётся блокировка строки списка дел (обычно уже удерживаемая самим изменением),
+ * поэтому id событий одного списка выделяются в порядке коммитов: следующая транзакция получает id
+ * только после коммита предыдущей, и реле не увидит более позднее событие списка раньше более раннего.
+ * <p>
+ * Включается тем же свойством, что и {@link OutboxRelay}: без реле события только копились бы в таблице.
+ * Партиция события ({@code partition_key}) вычисляется при записи; менять {@code todo.outbox.relay.partitions}
+ * можно только на пустой outbox_events.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.outbox.relay.enabled", havingValue = "true")
+public class OutboxWriter {
+
+    // Тот же режим блокировки, что у UPDATE счётчиков: не конфликтует с FOR KEY SHARE от вставки задач
+    private static final String LOCK_AGGREGATE = "SELECT id FROM todo_items WHERE id = ? FOR NO KEY UPDATE";
+
+    private static final String INSERT =
+            "INSERT INTO outbox_events (aggregate_id, partition_key, event_type, payload) VALUES (?, ?, ?, ?::jsonb)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int partitions;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate,
+                        ObjectMapper objectMapper,
+                        @Value("${todo.outbox.relay.partitions:16}") int partitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.partitions = partitions;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onChange(TodoChangeDto change) throws JsonProcessingException {
+        // Удалённый список строки не имеет; её блокировку до коммита держит сам DELETE
+        jdbcTemplate.queryForList(LOCK_AGGREGATE, Long.class, change.getTodoId());
+        jdbcTemplate.update(INSERT, change.getTodoId(), (int) Math.floorMod(change.getTodoId(), (long) partitions),
+                change.getType().name(), objectMapper.writeValueAsString(change));
+    }
+}
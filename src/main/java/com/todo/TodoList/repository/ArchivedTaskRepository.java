@@ -0,0 +1,18 @@
+package com.todo.TodoList.repository;
+
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.entity.ArchivedTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    @Query("SELECT new com.todo.TodoList.dto.TaskDto(a.id, a.title, a.description, a.completed, a.createdAt, a.todoItemId, a.version) " +
+            "FROM ArchivedTask a WHERE a.todoItemId = :todoId ORDER BY a.id")
+    List<TaskDto> findDtosByTodoItemId(@Param("todoId") Long todoId);
+}
@@ -1,19 +1,88 @@
 package com.todo.TodoList.repository;
 
 
+import com.todo.TodoList.config.HibernateCacheConfig;
+import com.todo.TodoList.dto.TaskDto;
 import com.todo.TodoList.entity.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
     List<Task> findByTodoItemId(Long todoItemId);
+
+    /**
+     * Проекция для списочных эндпоинтов: выбираются только колонки {@link TaskDto},
+     * управляемые сущности и их снапшоты для dirty-check не создаются.
+     * Результат кэшируется в регионе запросов; он сбрасывается при любой записи в tasks через Hibernate.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.TASK_QUERIES_REGION)
+    })
+    @Query("SELECT new com.todo.TodoList.dto.TaskDto(t.id, t.title, t.description, t.completed, t.createdAt, t.todoItem.id, t.version) " +
+            "FROM Task t WHERE t.todoItem.id = :todoId ORDER BY t.id")
+    List<TaskDto> findDtosByTodoItemId(@Param("todoId") Long todoId);
+
+    @Query("SELECT new com.todo.TodoList.dto.TaskDto(t.id, t.title, t.description, t.completed, t.createdAt, t.todoItem.id, t.version) " +
+            "FROM Task t WHERE t.todoItem.id IN :todoIds ORDER BY t.id")
+    List<TaskDto> findDtosByTodoItemIdIn(@Param("todoIds") Collection<Long> todoIds);
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.TASK_QUERIES_REGION)
+    })
     @Query("SELECT t FROM Task t WHERE t.id = :taskId AND t.todoItem.id = :todoId")
     Optional<Task> findByIdAndTodoItemId(@Param("taskId") Long taskId, @Param("todoId") Long todoId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.TASK_QUERIES_REGION)
+    })
+    @Query("SELECT t.version FROM Task t WHERE t.id = :taskId AND t.todoItem.id = :todoId")
+    Optional<Long> findVersion(@Param("taskId") Long taskId, @Param("todoId") Long todoId);
+
+    /**
+     * Переключение completed одним обращением к БД: UPDATE задачи и счётчиков её списка дел
+     * (с увеличением версии списка) в одном выражении, новая строка задачи возвращается через RETURNING.
+     * Выполняется как запрос, поэтому Hibernate об изменении не знает: запись задачи в кэше второго уровня
+     * и метку таблицы tasks для кэша запросов обновляет HibernateCacheEvictor.evictToggledTask.
+     */
+    @Query(value = """
+            WITH toggled AS (
+                UPDATE tasks SET completed = NOT completed, version = version + 1
+                WHERE id = :taskId AND todo_item_id = :todoId
+                RETURNING id, title, description, completed, version, created_at, todo_item_id
+            ), counters AS (
+                UPDATE todo_items ti
+                SET completed_task_count = ti.completed_task_count + CASE WHEN toggled.completed THEN 1 ELSE -1 END,
+                    version = ti.version + 1
+                FROM toggled
+                WHERE ti.id = toggled.todo_item_id
+            )
+            SELECT * FROM toggled
+            """, nativeQuery = true)
+    Optional<Task> toggleCompletion(@Param("taskId") Long taskId, @Param("todoId") Long todoId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.completed = :completed, t.version = t.version + 1 " +
+            "WHERE t.todoItem.id = :todoId AND t.completed <> :completed")
+    int updateCompletion(@Param("todoId") Long todoId, @Param("completed") boolean completed);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.completed = :completed, t.version = t.version + 1 " +
+            "WHERE t.todoItem.id = :todoId AND t.id IN :taskIds AND t.completed <> :completed")
+    int updateCompletion(@Param("todoId") Long todoId, @Param("taskIds") Collection<Long> taskIds,
+                         @Param("completed") boolean completed);
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.todo.TodoList.repository;
+
+import com.todo.TodoList.entity.Task;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Условия для выборок задач через {@link TaskRepository#findBy}. Каждое условие транслируется в SQL,
+ * строки списка находятся по индексу (todo_item_id, id), сортировка по дате создания - по (todo_item_id, created_at, id)
+ * (changeset 009).
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+        // Утилитный класс
+    }
+
+    public static Specification<Task> belongsTo(Long todoId) {
+        return (root, query, cb) -> cb.equal(root.get("todoItem").get("id"), todoId);
+    }
+
+    public static Specification<Task> completed(Boolean completed) {
+        return (root, query, cb) -> completed == null ? null : cb.equal(root.get("completed"), completed);
+    }
+
+    public static Specification<Task> createdBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            Expression<LocalDateTime> createdAt = root.get("createdAt");
+            if (from != null && to != null) {
+                return cb.and(cb.greaterThanOrEqualTo(createdAt, from), cb.lessThan(createdAt, to));
+            }
+            if (from != null) {
+                return cb.greaterThanOrEqualTo(createdAt, from);
+            }
+            return to == null ? null : cb.lessThan(createdAt, to);
+        };
+    }
+
+    /**
+     * {@code lower(title) LIKE 'prefix%'}; проверяется по строкам одного списка, отдельного индекса нет.
+     */
+    public static Specification<Task> titleStartsWith(String prefix) {
+        return (root, query, cb) -> {
+            if (prefix == null || prefix.isEmpty()) {
+                return null;
+            }
+            String pattern = escapeLike(prefix.toLowerCase()) + "%";
+            return cb.like(cb.lower(root.get("title")), pattern, '\\');
+        };
+    }
+
+    /**
+     * Keyset-условие "после записи (value, id)" для сортировки по {@code attribute}, затем по id:
+     * {@code field >= value AND (field > value OR id > :id)}. Первое слагаемое даёт PostgreSQL границу
+     * диапазона по индексу (todo_item_id, field, id) там, где он есть (created_at), поэтому страница
+     * не просматривает предыдущие строки списка.
+     */
+    public static <T extends Comparable<? super T>> Specification<Task> after(String attribute, T value, Long id,
+                                                                                boolean descending) {
+        return (root, query, cb) -> {
+            Expression<T> field = root.get(attribute);
+            Expression<Long> taskId = root.get("id");
+            if (value == null) {
+                return descending ? cb.lessThan(taskId, id) : cb.greaterThan(taskId, id);
+            }
+            Predicate bound = descending ? cb.lessThanOrEqualTo(field, value) : cb.greaterThanOrEqualTo(field, value);
+            Predicate beyond = descending ? cb.lessThan(field, value) : cb.greaterThan(field, value);
+            Predicate tieBreak = descending ? cb.lessThan(taskId, id) : cb.greaterThan(taskId, id);
+            return cb.and(bound, cb.or(beyond, tieBreak));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,12 +1,25 @@
 package com.todo.TodoList.repository;
 
+import com.todo.TodoList.dto.TodoSummaryDto;
 import com.todo.TodoList.entity.TodoItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TodoRepository extends JpaRepository<TodoItem, Long> {
     @EntityGraph(attributePaths = "tasks")
@@ -20,4 +33,91 @@ public interface TodoRepository extends JpaRepository<TodoItem, Long> {
     @EntityGraph(attributePaths = "tasks")
     @Override
     Optional<TodoItem> findById(Long id);
+
+    /**
+     * Все списки дел без задач (задачи догружаются отдельным запросом, {@link com.todo.TodoList.service.TodoFetchStrategy#BATCH}).
+     */
+    @Query("SELECT t FROM TodoItem t ORDER BY t.id")
+    List<TodoItem> findAllWithoutTasks();
+
+    @Query("SELECT t FROM TodoItem t WHERE t.id = :id")
+    Optional<TodoItem> findWithoutTasksById(@Param("id") Long id);
+
+    /**
+     * Keyset-страница списков дел без задач: {@code WHERE id > ? ORDER BY id LIMIT ?}.
+     */
+    List<TodoItem> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Keyset-страница кратких представлений списков дел с количеством задач, без загрузки сущностей.
+     * Количество берётся из денормализованных счётчиков, таблица tasks не читается.
+     */
+    @Query("SELECT new com.todo.TodoList.dto.TodoSummaryDto(t.id, t.title, t.completed, t.taskCount, t.completedTaskCount) " +
+            "FROM TodoItem t WHERE t.id > :after ORDER BY t.id")
+    List<TodoSummaryDto> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    /**
+     * Атомарное изменение счётчиков задач; вызывается при любом изменении задач списка
+     * (в том числе с нулевыми приращениями) и увеличивает версию списка дел, от которой строится его ETag.
+     * Нативный UPDATE ... RETURNING вместо JPQL: массовый JPQL-UPDATE очистил бы весь регион
+     * TodoItem в кэше второго уровня, а так вызывающий код вытесняет только один список.
+     *
+     * @return новая версия списка дел или пусто, если списка нет
+     */
+    @Query(value = "UPDATE todo_items SET task_count = task_count + :delta, " +
+            "completed_task_count = completed_task_count + :completedDelta, version = version + 1 " +
+            "WHERE id = :id RETURNING version", nativeQuery = true)
+    Optional<Long> adjustTaskCounters(@Param("id") Long id, @Param("delta") long delta,
+                           @Param("completedDelta") long completedDelta);
+
+    /**
+     * Увеличивает версии списков дел, задачи которых изменены мимо {@link #adjustTaskCounters}.
+     * Строки блокируются в порядке id, как при сверке счётчиков.
+     */
+    @Query(value = "UPDATE todo_items SET version = version + 1 WHERE id IN (" +
+            "SELECT id FROM todo_items WHERE id IN (:ids) ORDER BY id FOR UPDATE) RETURNING id", nativeQuery = true)
+    List<Long> incrementVersions(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Удаление одним DELETE: задачи удаляет ON DELETE CASCADE внешнего ключа,
+     * сущности и их коллекции в память не загружаются.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TodoItem t WHERE t.id = :id")
+    int deleteCascadingById(@Param("id") Long id);
+
+    /**
+     * Удаляет переданные списки дел (задачи - через ON DELETE CASCADE) и возвращает фактически удалённые id.
+     */
+    @Query(value = "DELETE FROM todo_items WHERE id IN (:ids) RETURNING id", nativeQuery = true)
+    List<Long> deleteChunkByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Удаляет не больше {@code limit} выполненных списков дел, созданных до {@code before}.
+     * Строки, заблокированные другими транзакциями, пропускаются до следующей порции.
+     */
+    @Query(value = "DELETE FROM todo_items WHERE id IN (" +
+            "SELECT id FROM todo_items WHERE completed AND created_at < :before " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) RETURNING id", nativeQuery = true)
+    List<Long> deleteCompletedChunk(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    /**
+     * Версия списка дел; меняется при любом изменении списка или его задач.
+     * Одна строка по первичному ключу, задачи не читаются.
+     */
+    @Query("SELECT t.version FROM TodoItem t WHERE t.id = :id")
+    Optional<Long> findVersion(@Param("id") Long id);
+
+    /**
+     * Потоковое чтение всех списков дел через серверный курсор.
+     * Должен вызываться внутри транзакции, поток обязательно закрывать.
+     * Полная выгрузка не кладёт списки в кэш второго уровня (storeMode BYPASS).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS")
+    })
+    @Query("SELECT t FROM TodoItem t ORDER BY t.id")
+    Stream<TodoItem> streamAll();
 }
\ No newline at end of file
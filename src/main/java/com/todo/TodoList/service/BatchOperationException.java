@@ -0,0 +1,20 @@
+package com.todo.TodoList.service;
+
+import com.todo.TodoList.dto.BatchOperationDto;
+import lombok.Getter;
+
+/**
+ * Ошибка операции пакета; весь пакет откатывается. Причина определяет HTTP-статус ответа.
+ */
+@Getter
+public class BatchOperationException extends RuntimeException {
+
+    private final int index;
+    private final BatchOperationDto.Type operation;
+
+    public BatchOperationException(int index, BatchOperationDto.Type operation, RuntimeException cause) {
+        super("Operation #" + index + " (" + operation + ") failed: " + cause.getMessage(), cause);
+        this.index = index;
+        this.operation = operation;
+    }
+}
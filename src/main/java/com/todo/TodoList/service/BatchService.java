@@ -0,0 +1,366 @@
+package com.todo.TodoList.service;
+
+import com.todo.TodoList.config.CacheConfig;
+import com.todo.TodoList.dto.BatchOperationDto;
+import com.todo.TodoList.dto.BatchOperationResultDto;
+import com.todo.TodoList.dto.BatchResultDto;
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoChangeDto;
+import com.todo.TodoList.dto.TodoDto;
+import com.todo.TodoList.entity.Task;
+import com.todo.TodoList.entity.TodoItem;
+import com.todo.TodoList.mapper.TodoMapper;
+import com.todo.TodoList.repository.TaskRepository;
+import com.todo.TodoList.repository.TodoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Пакет операций над списками дел и задачами в одной транзакции (POST /api/batch).
+ * <p>
+ * Существующие списки и задачи загружаются двумя запросами {@code id IN (...)}, операции меняют
+ * управляемые сущности, а INSERT/UPDATE/DELETE уходят JDBC-батчами при одном flush.
+ * Идентификаторы новых объектов выделяются из пула последовательности при persist,
+ * поэтому временные ссылки клиента (ref) разрешаются сразу. Счётчики задач обновляются
+ * одним UPDATE на затронутый список в порядке id, удалённые списки - одним DELETE с каскадом по задачам.
+ * Результат и событие каждой операции - снимок состояния сразу после неё; счётчики в снимках
+ * учитывают предыдущие операции пакета, а version у всех снимков - итоговая, после пакета.
+ * Ошибка любой операции откатывает весь пакет.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BatchService {
+
+    public static final int MAX_OPERATIONS = 1000;
+
+    private final TodoRepository todoRepository;
+    private final TaskRepository taskRepository;
+    private final TodoMapper todoMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final HibernateCacheEvictor hibernateCacheEvictor;
+
+    /**
+     * Результат операции: снимки DTO сделаны при её выполнении, версии проставляются после flush.
+     */
+    private record Applied(int index, BatchOperationDto op, Long id,
+                           TodoItem todo, TodoDto todoDto, Task task, TaskDto taskDto) {
+    }
+
+    /**
+     * Состояние выполнения пакета: загруженные и созданные объекты, удаления и изменения счётчиков.
+     */
+    private static final class Context {
+        final Map<Long, TodoItem> todos = new HashMap<>();
+        final Map<Long, Task> tasks = new HashMap<>();
+        final Map<String, TodoItem> todosByRef = new HashMap<>();
+        final Map<String, Task> tasksByRef = new HashMap<>();
+        final Set<Long> deletedTodoIds = new LinkedHashSet<>();
+        final Set<Long> deletedTaskIds = new HashSet<>();
+        // TreeMap: UPDATE счётчиков блокирует строки списков по возрастанию id, как и остальные пакетные записи
+        final Map<Long, long[]> counterDeltas = new TreeMap<>();
+        final Set<Long> affectedTodoIds = new LinkedHashSet<>();
+
+        /**
+         * Счётчики меняются и в памяти (для снимков следующих операций), но колонки не updatable,
+         * а INSERT нового списка строится из состояния на момент save(). Поэтому в БД приращения
+         * и для созданных в пакете списков, и для существующих применяет TodoRepository.adjustTaskCounters.
+         */
+        void adjustCounters(TodoItem todoItem, long delta, long completedDelta) {
+            todoItem.setTaskCount(todoItem.getTaskCount() + delta);
+            todoItem.setCompletedTaskCount(todoItem.getCompletedTaskCount() + completedDelta);
+            long[] deltas = counterDeltas.computeIfAbsent(todoItem.getId(), id -> new long[2]);
+            deltas[0] += delta;
+            deltas[1] += completedDelta;
+        }
+    }
+
+    @Transactional
+    public BatchResultDto execute(List<BatchOperationDto> operations) {
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new IllegalArgumentException("Batch must not exceed " + MAX_OPERATIONS + " operations");
+        }
+
+        Context context = prefetch(operations);
+        List<Applied> applied = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperationDto op = operations.get(i);
+            try {
+                applied.add(apply(i, op, context));
+            } catch (NoSuchElementException | IllegalArgumentException | OptimisticLockingFailureException e) {
+                throw new BatchOperationException(i, op.getOp(), e);
+            }
+        }
+
+        // Все изменения сущностей - одним flush, JDBC-батчами
+        taskRepository.flush();
+
+        if (!context.deletedTodoIds.isEmpty()) {
+            todoRepository.deleteChunkByIds(context.deletedTodoIds);
+            hibernateCacheEvictor.evictDeletedTodos(context.deletedTodoIds);
+        }
+        // Приращения регистрируются для каждой операции над задачами, даже нулевые: UPDATE увеличивает версию списка
+        Map<Long, Long> todoVersions = new HashMap<>();
+        context.counterDeltas.forEach((todoId, deltas) -> {
+            if (!context.deletedTodoIds.contains(todoId)) {
+                todoRepository.adjustTaskCounters(todoId, deltas[0], deltas[1])
+                        .ifPresent(version -> todoVersions.put(todoId, version));
+            }
+        });
+        hibernateCacheEvictor.evictTodos(context.affectedTodoIds);
+        Cache todosCache = cacheManager.getCache(CacheConfig.TODOS_CACHE);
+        if (todosCache != null) {
+            context.affectedTodoIds.forEach(todosCache::evict);
+        }
+
+        List<BatchOperationResultDto> results = new ArrayList<>(applied.size());
+        for (Applied item : applied) {
+            setVersions(item, todoVersions);
+            results.add(new BatchOperationResultDto(item.index(), item.op().getOp(), item.op().getRef(), item.id(),
+                    item.todoDto(), item.taskDto()));
+        }
+        return new BatchResultDto(results);
+    }
+
+    private Context prefetch(List<BatchOperationDto> operations) {
+        Set<Long> todoIds = new HashSet<>();
+        Set<Long> taskIds = new HashSet<>();
+        for (BatchOperationDto op : operations) {
+            if (op.getTodoId() != null) {
+                todoIds.add(op.getTodoId());
+            }
+            if (op.getTaskId() != null) {
+                taskIds.add(op.getTaskId());
+            }
+        }
+
+        Context context = new Context();
+        if (!todoIds.isEmpty()) {
+            todoRepository.findAllById(todoIds).forEach(todo -> context.todos.put(todo.getId(), todo));
+        }
+        if (!taskIds.isEmpty()) {
+            taskRepository.findAllById(taskIds).forEach(task -> context.tasks.put(task.getId(), task));
+        }
+        return context;
+    }
+
+    private Applied apply(int index, BatchOperationDto op, Context context) {
+        if (op.getRef() != null && (context.todosByRef.containsKey(op.getRef()) || context.tasksByRef.containsKey(op.getRef()))) {
+            throw new IllegalArgumentException("Duplicate ref: " + op.getRef());
+        }
+        return switch (op.getOp()) {
+            case CREATE_TODO -> createTodo(index, op, context);
+            case UPDATE_TODO -> updateTodo(index, op, context);
+            case DELETE_TODO -> deleteTodo(index, op, context);
+            case CREATE_TASK -> createTask(index, op, context);
+            case UPDATE_TASK -> updateTask(index, op, context);
+            case TOGGLE_TASK -> toggleTask(index, op, context);
+            case DELETE_TASK -> deleteTask(index, op, context);
+        };
+    }
+
+    private Applied createTodo(int index, BatchOperationDto op, Context context) {
+        TodoDto todoDto = require(op.getTodo(), "todo");
+        TodoItem todoItem = todoMapper.toEntity(todoDto);
+        todoItem.setId(null);
+        if (todoDto.getTasks() != null) {
+            for (TaskDto taskDto : todoDto.getTasks()) {
+                Task task = todoMapper.toEntity(taskDto);
+                task.setId(null);
+                todoItem.addTask(task);
+            }
+        }
+        todoItem.setTaskCount(todoItem.getTasks().size());
+        todoItem.setCompletedTaskCount(todoItem.getTasks().stream().filter(Task::isCompleted).count());
+
+        TodoItem saved = todoRepository.save(todoItem);
+        if (op.getRef() != null) {
+            context.todosByRef.put(op.getRef(), saved);
+        }
+        context.affectedTodoIds.add(saved.getId());
+        // С задачами: их идентификаторы выделены при persist и нужны клиенту
+        TodoDto snapshot = todoMapper.toDto(saved);
+        publish(op, saved.getId(), saved.getId(), snapshot, null);
+        return new Applied(index, op, saved.getId(), saved, snapshot, null, null);
+    }
+
+    private Applied updateTodo(int index, BatchOperationDto op, Context context) {
+        TodoDto todoDto = require(op.getTodo(), "todo");
+        TodoItem todoItem = resolveTodo(op, context);
+        if (todoDto.getVersion() != null && !todoDto.getVersion().equals(todoItem.getVersion())) {
+            throw new OptimisticLockingFailureException("TodoItem with id " + todoItem.getId() + " has been modified");
+        }
+        todoMapper.updateEntityFromDto(todoDto, todoItem);
+        context.affectedTodoIds.add(todoItem.getId());
+        TodoDto snapshot = todoMapper.toDtoWithoutTasks(todoItem);
+        publish(op, todoItem.getId(), todoItem.getId(), snapshot, null);
+        return new Applied(index, op, todoItem.getId(), todoItem, snapshot, null, null);
+    }
+
+    private Applied deleteTodo(int index, BatchOperationDto op, Context context) {
+        TodoItem todoItem = resolveTodo(op, context);
+        context.deletedTodoIds.add(todoItem.getId());
+        context.affectedTodoIds.add(todoItem.getId());
+        publish(op, todoItem.getId(), todoItem.getId(), null, null);
+        return new Applied(index, op, todoItem.getId(), null, null, null, null);
+    }
+
+    private Applied createTask(int index, BatchOperationDto op, Context context) {
+        TaskDto taskDto = require(op.getTask(), "task");
+        TodoItem todoItem = resolveTodo(op, context);
+
+        Task task = todoMapper.toEntity(taskDto);
+        task.setId(null);
+        task.setTodoItem(todoItem);
+        Task saved = taskRepository.save(task);
+        if (op.getRef() != null) {
+            context.tasksByRef.put(op.getRef(), saved);
+        }
+        context.adjustCounters(todoItem, 1, saved.isCompleted() ? 1 : 0);
+        context.affectedTodoIds.add(todoItem.getId());
+        return taskApplied(index, op, todoItem.getId(), saved);
+    }
+
+    private Applied updateTask(int index, BatchOperationDto op, Context context) {
+        TaskDto taskDto = require(op.getTask(), "task");
+        Task task = resolveTask(op, context);
+        if (taskDto.getVersion() != null && !taskDto.getVersion().equals(task.getVersion())) {
+            throw new OptimisticLockingFailureException("Task with id " + task.getId() + " has been modified");
+        }
+        boolean wasCompleted = task.isCompleted();
+        todoMapper.updateTaskFromDto(taskDto, task);
+        long completedDelta = 0;
+        if (task.isCompleted() != wasCompleted) {
+            completedDelta = task.isCompleted() ? 1 : -1;
+        }
+        context.adjustCounters(task.getTodoItem(), 0, completedDelta);
+        context.affectedTodoIds.add(task.getTodoItem().getId());
+        return taskApplied(index, op, task.getTodoItem().getId(), task);
+    }
+
+    private Applied toggleTask(int index, BatchOperationDto op, Context context) {
+        Task task = resolveTask(op, context);
+        task.setCompleted(!task.isCompleted());
+        context.adjustCounters(task.getTodoItem(), 0, task.isCompleted() ? 1 : -1);
+        context.affectedTodoIds.add(task.getTodoItem().getId());
+        return taskApplied(index, op, task.getTodoItem().getId(), task);
+    }
+
+    private Applied deleteTask(int index, BatchOperationDto op, Context context) {
+        Task task = resolveTask(op, context);
+        taskRepository.delete(task);
+        context.deletedTaskIds.add(task.getId());
+        context.adjustCounters(task.getTodoItem(), -1, task.isCompleted() ? -1 : 0);
+        context.affectedTodoIds.add(task.getTodoItem().getId());
+        publish(op, task.getId(), task.getTodoItem().getId(), null, null);
+        return new Applied(index, op, task.getId(), null, null, null, null);
+    }
+
+    private TodoItem resolveTodo(BatchOperationDto op, Context context) {
+        TodoItem todoItem;
+        if (op.getTodoRef() != null) {
+            todoItem = context.todosByRef.get(op.getTodoRef());
+            if (todoItem == null) {
+                throw new IllegalArgumentException("Unknown todoRef: " + op.getTodoRef());
+            }
+        } else if (op.getTodoId() != null) {
+            todoItem = context.todos.get(op.getTodoId());
+        } else {
+            throw new IllegalArgumentException("todoId or todoRef is required");
+        }
+        if (todoItem == null || context.deletedTodoIds.contains(todoItem.getId())) {
+            throw new NoSuchElementException("TodoItem not found with id: " + (todoItem == null ? op.getTodoId() : todoItem.getId()));
+        }
+        return todoItem;
+    }
+
+    /**
+     * Задача должна принадлежать списку дел из todoId/todoRef, как в URL /api/todos/{todoId}/tasks/{taskId}.
+     */
+    private Task resolveTask(BatchOperationDto op, Context context) {
+        TodoItem todoItem = resolveTodo(op, context);
+        Task task;
+        if (op.getTaskRef() != null) {
+            task = context.tasksByRef.get(op.getTaskRef());
+            if (task == null) {
+                throw new IllegalArgumentException("Unknown taskRef: " + op.getTaskRef());
+            }
+        } else if (op.getTaskId() != null) {
+            task = context.tasks.get(op.getTaskId());
+        } else {
+            throw new IllegalArgumentException("taskId or taskRef is required");
+        }
+        if (task == null || context.deletedTaskIds.contains(task.getId())
+                || !Objects.equals(task.getTodoItem().getId(), todoItem.getId())) {
+            throw new NoSuchElementException("Task with id " + (task == null ? op.getTaskId() : task.getId())
+                    + " not found or does not belong to TodoItem with id " + todoItem.getId());
+        }
+        return task;
+    }
+
+    private static <T> T require(T payload, String field) {
+        if (payload == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return payload;
+    }
+
+    private Applied taskApplied(int index, BatchOperationDto op, Long todoId, Task task) {
+        TaskDto snapshot = todoMapper.toDto(task);
+        publish(op, task.getId(), todoId, null, snapshot);
+        return new Applied(index, op, task.getId(), null, null, task, snapshot);
+    }
+
+    /**
+     * Версии известны только после flush и UPDATE счётчиков; снимки уже отданы в события,
+     * которые доставляются после коммита, поэтому версия дописывается в те же объекты.
+     */
+    private static void setVersions(Applied item, Map<Long, Long> todoVersions) {
+        if (item.todoDto() != null) {
+            TodoItem todo = item.todo();
+            item.todoDto().setVersion(todoVersions.getOrDefault(todo.getId(), todo.getVersion()));
+            List<TaskDto> taskDtos = item.todoDto().getTasks();
+            if (taskDtos != null) {
+                for (int i = 0; i < taskDtos.size(); i++) {
+                    taskDtos.get(i).setVersion(todo.getTasks().get(i).getVersion());
+                }
+            }
+        }
+        if (item.taskDto() != null) {
+            item.taskDto().setVersion(item.task().getVersion());
+        }
+    }
+
+    /**
+     * Те же события, что и у одиночных эндпоинтов; подписчики получат их после коммита.
+     */
+    private void publish(BatchOperationDto op, Long id, Long todoId, TodoDto todoDto, TaskDto taskDto) {
+        TodoChangeDto change = switch (op.getOp()) {
+            case CREATE_TODO -> new TodoChangeDto(TodoChangeDto.Type.TODO_CREATED, id, null, todoDto);
+            case UPDATE_TODO -> new TodoChangeDto(TodoChangeDto.Type.TODO_UPDATED, id, null, todoDto);
+            case DELETE_TODO -> new TodoChangeDto(TodoChangeDto.Type.TODO_DELETED, id, null, null);
+            case CREATE_TASK -> new TodoChangeDto(TodoChangeDto.Type.TASK_CREATED, todoId, id, taskDto);
+            case UPDATE_TASK -> new TodoChangeDto(TodoChangeDto.Type.TASK_UPDATED, todoId, id, taskDto);
+            case TOGGLE_TASK -> new TodoChangeDto(TodoChangeDto.Type.TASK_TOGGLED, todoId, id, taskDto);
+            case DELETE_TASK -> new TodoChangeDto(TodoChangeDto.Type.TASK_DELETED, todoId, id, null);
+        };
+        eventPublisher.publishEvent(change);
+    }
+}
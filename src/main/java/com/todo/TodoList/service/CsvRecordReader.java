@@ -0,0 +1,90 @@
+package com.todo.TodoList.service;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковое чтение CSV (RFC 4180): поля в кавычках, экранирование двойной кавычкой,
+ * переносы строк внутри кавычек. Держит в памяти только текущую запись.
+ */
+class CsvRecordReader {
+
+    private final PushbackReader reader;
+    private long currentLine = 1;
+    private long recordLine;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = new PushbackReader(reader);
+    }
+
+    /**
+     * Номер строки, с которой началась последняя прочитанная запись.
+     */
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Следующая непустая запись или null в конце входа.
+     */
+    List<String> next() throws IOException {
+        List<String> record;
+        do {
+            record = readRecord();
+        } while (record != null && record.size() == 1 && record.get(0).isEmpty());
+        return record;
+    }
+
+    private List<String> readRecord() throws IOException {
+        recordLine = currentLine;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean started = false;
+
+        while (true) {
+            int c = reader.read();
+            if (c == -1) {
+                if (!started) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            started = true;
+
+            if (inQuotes) {
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            reader.unread(next);
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        currentLine++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                currentLine++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.todo.TodoList.service;
+
+/**
+ * Не удалось дождаться свободного соединения с БД за отведённое время.
+ */
+public class DatabaseBusyException extends RuntimeException {
+
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
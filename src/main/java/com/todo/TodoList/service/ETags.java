@@ -0,0 +1,39 @@
+package com.todo.TodoList.service;
+
+/**
+ * Формирование и сравнение ETag (RFC 9110).
+ * <p>
+ * Условные GET получают слабые ETag: одна версия описывает JSON, CBOR/Smile и сжатые варианты ответа,
+ * а Tomcat не сжимает ответы с сильным ETag. Сильные ETag - в ответах на изменения и для If-Match.
+ */
+public final class ETags {
+
+    private ETags() {
+        // Утилитный класс
+    }
+
+    public static String strong(String value) {
+        return "\"" + value + "\"";
+    }
+
+    public static String weak(String value) {
+        return "W/" + strong(value);
+    }
+
+    /**
+     * Проверка заголовка If-Match (сильное сравнение): "*" либо список ETag через запятую.
+     * Слабые ETag (W/) из ответов GET не совпадают никогда.
+     */
+    public static boolean matches(String ifMatch, String currentETag) {
+        String header = ifMatch.trim();
+        if (header.equals("*")) {
+            return true;
+        }
+        for (String candidate : header.split(",")) {
+            if (candidate.trim().equals(currentETag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
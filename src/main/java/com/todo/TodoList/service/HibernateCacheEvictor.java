@@ -0,0 +1,109 @@
+package com.todo.TodoList.service;
+
+import com.todo.TodoList.config.HibernateCacheConfig;
+import com.todo.TodoList.entity.Task;
+import com.todo.TodoList.entity.TodoItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Вытеснение из кэша второго уровня для изменений, которые Hibernate не отслеживает:
+ * нативные UPDATE/DELETE ... RETURNING (выполняются как запросы) и SQL через JdbcTemplate.
+ * <p>
+ * Вытеснение выполняется сразу и повторно после завершения транзакции (коммита или отката),
+ * чтобы в кэше не осталось состояние, прочитанное конкурентной транзакцией до коммита.
+ */
+@Component
+@RequiredArgsConstructor
+public class HibernateCacheEvictor {
+
+    private static final String TASKS_ROLE = TodoItem.class.getName() + ".tasks";
+
+    private static final String[] TASKS_TABLE = {"tasks"};
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+
+    /**
+     * Списки дел и их коллекции задач (счётчики, состав задач).
+     */
+    public void evictTodos(Collection<Long> todoIds) {
+        evictNowAndAfterCompletion(cache -> todoIds.forEach(id -> {
+            cache.evictEntityData(TodoItem.class, id);
+            cache.evictCollectionData(TASKS_ROLE, id);
+        }));
+    }
+
+    public void evictTodo(Long todoId) {
+        evictTodos(List.of(todoId));
+    }
+
+    /**
+     * Задача, изменённая нативным UPDATE ... RETURNING (TaskRepository.toggleCompletion): вытесняется только её запись,
+     * а закэшированные запросы по tasks устаревают по метке таблицы, как после обычного flush,
+     * без очистки региона запросов целиком.
+     */
+    public void evictToggledTask(Long taskId) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        TimestampsCache timestamps = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getTimestampsCache();
+        // Как у Hibernate: до коммита метка в будущем (результаты запросов не кэшируются), после - текущее время
+        timestamps.preInvalidate(TASKS_TABLE, session);
+        evictNowAndAfterCompletion(cache -> cache.evictEntityData(Task.class, taskId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    timestamps.invalidate(TASKS_TABLE, session);
+                }
+            });
+        } else {
+            timestamps.invalidate(TASKS_TABLE, session);
+        }
+    }
+
+    /**
+     * Задачи списков дел, удалённые или перенесённые мимо Hibernate. Их id неизвестны,
+     * поэтому регион задач очищается целиком; это только массовые и фоновые операции.
+     */
+    public void evictTasksOf(Collection<Long> todoIds) {
+        evictNowAndAfterCompletion(cache -> {
+            todoIds.forEach(id -> cache.evictCollectionData(TASKS_ROLE, id));
+            cache.evictEntityData(Task.class);
+            cache.evictQueryRegion(HibernateCacheConfig.TASK_QUERIES_REGION);
+        });
+    }
+
+    /**
+     * Удалённые списки дел вместе с задачами (ON DELETE CASCADE).
+     */
+    public void evictDeletedTodos(Collection<Long> todoIds) {
+        evictTodos(todoIds);
+        evictTasksOf(todoIds);
+    }
+
+    private void evictNowAndAfterCompletion(Consumer<Cache> eviction) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        eviction.accept(cache);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.accept(cache);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.todo.TodoList.service;
+
+/**
+ * Условие запроса (If-Match) не выполнено: ресурс изменился с момента получения клиентом.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,120 @@
+package com.todo.TodoList.service;
+
+import com.todo.TodoList.dto.PageDto;
+import com.todo.TodoList.dto.SearchResultDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+
+/**
+ * Полнотекстовый поиск по названиям и описаниям списков дел и задач.
+ * <p>
+ * Ищет по генерируемым столбцам search_vector через GIN-индексы, ранжирует ts_rank
+ * (совпадение в названии весит больше, чем в описании) и пагинирует по ключу (rank, type, id).
+ * Сниппеты (ts_headline) строятся только для строк текущей страницы.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SearchService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Границы подсветки - управляющие символы: после HTML-экранирования они заменяются на <mark>
+    private static final char START_SEL = '\u0002';
+    private static final char STOP_SEL = '\u0003';
+    private static final String HEADLINE_OPTIONS = "StartSel=\"" + START_SEL + "\", StopSel=\"" + STOP_SEL + "\", "
+            + "MaxFragments=2, MaxWords=15, MinWords=5, FragmentDelimiter=\" … \"";
+
+    private static final String SEARCH = """
+            WITH q AS (SELECT websearch_to_tsquery('russian', :query) AS query),
+            hits AS (
+                SELECT 'TODO' AS type, t.id, t.id AS todo_id, t.title, t.description,
+                       ts_rank(t.search_vector, q.query) AS rank
+                FROM todo_items t, q
+                WHERE t.search_vector @@ q.query
+                UNION ALL
+                SELECT 'TASK', k.id, k.todo_item_id, k.title, k.description,
+                       ts_rank(k.search_vector, q.query)
+                FROM tasks k, q
+                WHERE k.search_vector @@ q.query
+            ),
+            page AS (
+                SELECT * FROM hits
+                %s
+                ORDER BY rank DESC, type DESC, id DESC
+                LIMIT :limit
+            )
+            SELECT p.type, p.id, p.todo_id, p.title, p.rank,
+                   ts_headline('russian', coalesce(p.title, '') || '. ' || coalesce(p.description, ''),
+                               q.query, :headlineOptions) AS snippet
+            FROM page p, q
+            ORDER BY p.rank DESC, p.type DESC, p.id DESC
+            """;
+
+    private static final String AFTER_CURSOR =
+            "WHERE (rank, type, id) < (CAST(:afterRank AS real), :afterType, :afterId)";
+
+    private static final RowMapper<SearchResultDto> ROW_MAPPER = (rs, rowNum) -> new SearchResultDto(
+            SearchResultDto.Type.valueOf(rs.getString("type")),
+            rs.getLong("id"),
+            rs.getLong("todo_id"),
+            rs.getString("title"),
+            rs.getFloat("rank"),
+            highlight(rs.getString("snippet")));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * @param query строка поиска в синтаксисе websearch: слова, "фраза", -исключение, or
+     */
+    public PageDto<SearchResultDto> search(String query, String after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("limit", pageSize + 1)
+                .addValue("headlineOptions", HEADLINE_OPTIONS);
+
+        String keyset = "";
+        if (after != null && !after.isBlank()) {
+            String[] cursor = CursorCodec.decode(after, 3);
+            try {
+                params.addValue("afterRank", Float.parseFloat(cursor[0]))
+                        .addValue("afterType", SearchResultDto.Type.valueOf(cursor[1]).name())
+                        .addValue("afterId", Long.parseLong(cursor[2]));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after, e);
+            }
+            keyset = AFTER_CURSOR;
+        }
+
+        List<SearchResultDto> items = jdbcTemplate.query(SEARCH.formatted(keyset), params, ROW_MAPPER);
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            SearchResultDto last = items.get(items.size() - 1);
+            nextCursor = CursorCodec.encode(last.getRank(), last.getType(), last.getId());
+        }
+        return new PageDto<>(items, nextCursor);
+    }
+
+    private static String highlight(String snippet) {
+        if (snippet == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(snippet)
+                .replace(String.valueOf(START_SEL), "<mark>")
+                .replace(String.valueOf(STOP_SEL), "</mark>");
+    }
+}
@@ -0,0 +1,103 @@
+package com.todo.TodoList.service;
+
+import com.todo.TodoList.config.CacheConfig;
+import com.todo.TodoList.repository.TodoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Фоновый перенос выполненных задач старше {@code todo.archive.min-age} из tasks в tasks_archive.
+ * Каждая порция - один DELETE ... RETURNING + INSERT в отдельной короткой транзакции;
+ * задачи, заблокированные пользовательскими транзакциями, пропускаются до следующего запуска.
+ * Счётчики задач не меняются: они учитывают и архив. Версии затронутых списков дел увеличиваются
+ * в той же транзакции: их списки задач (и ETag) изменились.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "todo.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiver {
+
+    private static final String ARCHIVE_CHUNK = """
+            WITH moved AS (
+                DELETE FROM tasks
+                WHERE id IN (
+                    SELECT id FROM tasks
+                    WHERE completed AND created_at < ?
+                    ORDER BY created_at
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id, title, description, completed, created_at, todo_item_id, version
+            )
+            INSERT INTO tasks_archive (id, title, description, completed, created_at, todo_item_id, version)
+            SELECT id, title, description, completed, created_at, todo_item_id, version FROM moved
+            RETURNING todo_item_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TodoRepository todoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final HibernateCacheEvictor hibernateCacheEvictor;
+
+    @Value("${todo.archive.min-age}")
+    private Duration minAge;
+
+    @Value("${todo.archive.chunk-size}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${todo.archive.cron}")
+    public void archiveScheduled() {
+        archive();
+    }
+
+    /**
+     * @return количество перенесённых в архив задач
+     */
+    public long archive() {
+        Timestamp threshold = Timestamp.valueOf(LocalDateTime.now().minus(minAge));
+        Cache todosCache = cacheManager.getCache(CacheConfig.TODOS_CACHE);
+        long archived = 0;
+        int moved;
+        do {
+            List<Long> todoIds = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(ARCHIVE_CHUNK, Long.class, threshold, chunkSize);
+                if (!ids.isEmpty()) {
+                    todoRepository.incrementVersions(new TreeSet<>(ids));
+                }
+                return ids;
+            });
+            moved = todoIds == null ? 0 : todoIds.size();
+            archived += moved;
+            if (moved > 0) {
+                // Закэшированные DTO и коллекции задач содержат перенесённые задачи, версии списков изменились
+                List<Long> affected = todoIds.stream().distinct().toList();
+                hibernateCacheEvictor.evictTodos(affected);
+                if (todosCache != null) {
+                    affected.forEach(todosCache::evict);
+                }
+                hibernateCacheEvictor.evictTasksOf(affected);
+            }
+        } while (moved == chunkSize);
+
+        if (archived > 0) {
+            log.info("Archived {} completed task(s) created before {}", archived, threshold);
+        }
+        return archived;
+    }
+}
@@ -0,0 +1,98 @@
+package com.todo.TodoList.service;
+
+import com.todo.TodoList.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Периодическая сверка счётчиков task_count / completed_task_count с фактическим содержимым tasks и tasks_archive.
+ * Обходит todo_items диапазонами id, каждый диапазон - отдельная короткая транзакция.
+ * Строки диапазона блокируются до пересчёта, поэтому параллельные инкременты из TaskService
+ * либо уже видны подсчёту, либо применяются поверх исправленного значения.
+ * Исправленные строки получают новую version, иначе клиенты продолжили бы получать 304 по старому ETag.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskCounterReconciler {
+
+    private static final String LOCK_RANGE =
+            "SELECT id FROM todo_items WHERE id > ? AND id <= ? ORDER BY id FOR UPDATE";
+
+    private static final String RECONCILE_RANGE = """
+            UPDATE todo_items ti
+            SET task_count = c.total,
+                completed_task_count = c.done,
+                version = ti.version + 1
+            FROM (
+                SELECT ti2.id, count(t.id) AS total, count(t.id) FILTER (WHERE t.completed) AS done
+                FROM todo_items ti2
+                LEFT JOIN (
+                    SELECT id, todo_item_id, completed FROM tasks
+                    UNION ALL
+                    SELECT id, todo_item_id, completed FROM tasks_archive
+                ) t ON t.todo_item_id = ti2.id
+                WHERE ti2.id > ? AND ti2.id <= ?
+                GROUP BY ti2.id
+            ) c
+            WHERE ti.id = c.id
+              AND (ti.task_count <> c.total OR ti.completed_task_count <> c.done)
+            RETURNING ti.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final HibernateCacheEvictor hibernateCacheEvictor;
+
+    @Value("${todo.counters.reconcile-chunk-size}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${todo.counters.reconcile-cron}")
+    public void reconcileScheduled() {
+        reconcile();
+    }
+
+    /**
+     * @return количество исправленных списков дел
+     */
+    public long reconcile() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT max(id) FROM todo_items", Long.class);
+        if (maxId == null) {
+            return 0;
+        }
+
+        Cache todosCache = cacheManager.getCache(CacheConfig.TODOS_CACHE);
+        long repaired = 0;
+        for (long from = 0; from < maxId; from += chunkSize) {
+            long rangeStart = from;
+            long rangeEnd = from + chunkSize;
+            List<Long> repairedIds = transactionTemplate.execute(status -> {
+                jdbcTemplate.queryForList(LOCK_RANGE, Long.class, rangeStart, rangeEnd);
+                return jdbcTemplate.queryForList(RECONCILE_RANGE, Long.class, rangeStart, rangeEnd);
+            });
+            if (repairedIds == null || repairedIds.isEmpty()) {
+                continue;
+            }
+            repaired += repairedIds.size();
+            if (todosCache != null) {
+                repairedIds.forEach(todosCache::evict);
+            }
+            hibernateCacheEvictor.evictTodos(repairedIds);
+        }
+
+        if (repaired > 0) {
+            log.warn("Task counters drifted and were repaired for {} todo item(s)", repaired);
+        }
+        return repaired;
+    }
+}
@@ -1,34 +1,141 @@
 package com.todo.TodoList.service;
 
+import com.todo.TodoList.config.CacheConfig;
+import com.todo.TodoList.dto.BulkUpdateResultDto;
+import com.todo.TodoList.dto.PageDto;
+import com.todo.TodoList.dto.TaskBatchItemResultDto;
+import com.todo.TodoList.dto.TaskBatchResultDto;
+import com.todo.TodoList.dto.TaskCompletionUpdateDto;
 import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TaskFilterDto;
+import com.todo.TodoList.dto.TodoChangeDto;
 import com.todo.TodoList.entity.Task;
 import com.todo.TodoList.entity.TodoItem;
 import com.todo.TodoList.mapper.TodoMapper;
+import com.todo.TodoList.repository.ArchivedTaskRepository;
 import com.todo.TodoList.repository.TaskRepository;
+import com.todo.TodoList.repository.TaskSpecifications;
 import com.todo.TodoList.repository.TodoRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class TaskService {
 
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final TaskRepository taskRepository;
     private final TodoRepository todoRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
     private final TodoMapper todoMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HibernateCacheEvictor hibernateCacheEvictor;
+
+    /**
+     * @param includeArchived добавить задачи из архива; по умолчанию читается только таблица tasks
+     */
+    public List<TaskDto> getAllTasksForTodo(Long todoId, boolean includeArchived) {
+        verifyTodoExists(todoId);
+
+        List<TaskDto> tasks = taskRepository.findDtosByTodoItemId(todoId);
+        if (!includeArchived) {
+            return tasks;
+        }
+        List<TaskDto> all = new ArrayList<>(tasks);
+        all.addAll(archivedTaskRepository.findDtosByTodoItemId(todoId));
+        // id живых и архивных задач выданы одной последовательностью
+        all.sort(Comparator.comparing(TaskDto::getId));
+        return all;
+    }
 
-    public List<TaskDto> getAllTasksForTodo(Long todoId) {
+    /**
+     * Страница задач с фильтрами и сортировкой. Все условия, сортировка и лимит уходят в один SQL-запрос;
+     * пагинация по ключу (поле сортировки, id).
+     */
+    public PageDto<TaskDto> getTaskPage(Long todoId, TaskFilterDto filter, String after, int limit) {
         verifyTodoExists(todoId);
+        int pageSize = Math.min(Math.max(limit, 1), TodoService.MAX_PAGE_SIZE);
+        boolean descending = filter.getDirection() == TaskFilterDto.Direction.DESC;
+
+        Specification<Task> specification = Specification.where(TaskSpecifications.belongsTo(todoId))
+                .and(TaskSpecifications.completed(filter.getCompleted()))
+                .and(TaskSpecifications.createdBetween(filter.getCreatedFrom(), filter.getCreatedTo()))
+                .and(TaskSpecifications.titleStartsWith(filter.getTitlePrefix()));
+        if (after != null && !after.isBlank()) {
+            specification = specification.and(afterCursor(filter.getSort(), after, descending));
+        }
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = switch (filter.getSort()) {
+            case ID -> Sort.by(direction, "id");
+            case CREATED_AT -> Sort.by(direction, "createdAt", "id");
+            case TITLE -> Sort.by(direction, "title", "id");
+        };
+
+        // Запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница
+        List<Task> tasks = taskRepository.findBy(specification, query -> query.sortBy(sort).limit(pageSize + 1).all());
+        boolean hasMore = tasks.size() > pageSize;
+        if (hasMore) {
+            tasks = tasks.subList(0, pageSize);
+        }
+
+        List<TaskDto> items = tasks.stream().map(todoMapper::toDto).toList();
+        String nextCursor = null;
+        if (hasMore) {
+            TaskDto last = items.get(items.size() - 1);
+            Object sortValue = switch (filter.getSort()) {
+                case ID -> "";
+                case CREATED_AT -> last.getCreatedAt();
+                case TITLE -> last.getTitle();
+            };
+            // id первым: название может содержать разделитель курсора
+            nextCursor = CursorCodec.encode(last.getId(), sortValue);
+        }
+        return new PageDto<>(items, nextCursor);
+    }
+
+    /**
+     * Слабый ETag списка задач; совпадает с ETag списка дел, версия которого меняется при любом изменении задач.
+     */
+    public String getTaskListETag(Long todoId) {
+        return todoRepository.findVersion(todoId)
+                .map(version -> ETags.weak(TodoService.todoETagValue(todoId, version)))
+                .orElseThrow(() -> new NoSuchElementException("TodoItem not found with id: " + todoId));
+    }
+
+    /**
+     * Слабый ETag задачи для условных GET.
+     */
+    public String getTaskETag(Long todoId, Long taskId) {
+        return taskRepository.findVersion(taskId, todoId)
+                .map(version -> ETags.weak(taskId + "-" + version))
+                .orElseThrow(() -> taskNotFound(todoId, taskId));
+    }
 
-        return taskRepository.findByTodoItemId(todoId).stream()
-                .map(todoMapper::toDto)
-                .collect(Collectors.toList());
+    /**
+     * Сильный ETag по версии из самого DTO - для ответов на изменения; его принимает If-Match.
+     */
+    public static String eTagOf(TaskDto task) {
+        return taskETag(task.getId(), task.getVersion());
     }
 
     public TaskDto getTaskById(Long todoId, Long taskId) {
@@ -37,6 +144,7 @@ public class TaskService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#todoId")
     public TaskDto createTask(Long todoId, TaskDto taskDto) {
         TodoItem todoItem = todoRepository.findById(todoId)
                 .orElseThrow(() -> new NoSuchElementException("TodoItem not found with id: " + todoId));
@@ -45,32 +153,173 @@ public class TaskService {
         task.setTodoItem(todoItem);
 
         Task saved = taskRepository.save(task);
-        return todoMapper.toDto(saved);
+        adjustCounters(todoId, 1, saved.isCompleted() ? 1 : 0);
+        TaskDto result = todoMapper.toDto(saved);
+        publish(TodoChangeDto.Type.TASK_CREATED, todoId, result);
+        return result;
+    }
+
+    /**
+     * Пакетное создание задач. Невалидные задачи отклоняются по отдельности, остальные
+     * сохраняются одним пакетом: идентификаторы берутся из пула последовательности,
+     * поэтому Hibernate отправляет INSERT-ы JDBC-батчами, а не по одному.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#todoId")
+    public TaskBatchResultDto createTasks(Long todoId, List<TaskDto> taskDtos) {
+        if (taskDtos.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size must not exceed " + MAX_BATCH_SIZE + " tasks");
+        }
+        verifyTodoExists(todoId);
+        TodoItem todoItem = todoRepository.getReferenceById(todoId);
+
+        List<TaskBatchItemResultDto> results = new ArrayList<>(taskDtos.size());
+        List<Task> tasks = new ArrayList<>(taskDtos.size());
+        List<TaskBatchItemResultDto> pending = new ArrayList<>(taskDtos.size());
+        for (int i = 0; i < taskDtos.size(); i++) {
+            TaskDto taskDto = taskDtos.get(i);
+            List<String> errors = validate(taskDto);
+            if (!errors.isEmpty()) {
+                results.add(new TaskBatchItemResultDto(i, TaskBatchItemResultDto.Status.REJECTED, null, errors));
+                continue;
+            }
+            Task task = todoMapper.toEntity(taskDto);
+            task.setTodoItem(todoItem);
+            tasks.add(task);
+
+            TaskBatchItemResultDto result = new TaskBatchItemResultDto(i, TaskBatchItemResultDto.Status.CREATED, null, List.of());
+            pending.add(result);
+            results.add(result);
+        }
+
+        List<Task> saved = taskRepository.saveAll(tasks);
+        long completed = 0;
+        for (int i = 0; i < saved.size(); i++) {
+            pending.get(i).setTask(todoMapper.toDto(saved.get(i)));
+            if (saved.get(i).isCompleted()) {
+                completed++;
+            }
+        }
+        if (!saved.isEmpty()) {
+            adjustCounters(todoId, saved.size(), completed);
+            publishTasksChanged(todoId);
+        }
+        return new TaskBatchResultDto(saved.size(), results.size() - saved.size(), results);
     }
 
     @Transactional
-    public TaskDto updateTask(Long todoId, Long taskId, TaskDto taskDto) {
+    @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#todoId")
+    public TaskDto updateTask(Long todoId, Long taskId, TaskDto taskDto, String ifMatch) {
         Task existing = findTaskByIdAndTodoId(todoId, taskId);
 
+        // Конкурентные изменения после этой проверки отсечёт @Version при flush
+        if (ifMatch != null && !ETags.matches(ifMatch, taskETag(taskId, existing.getVersion()))) {
+            throw new PreconditionFailedException("Task with id " + taskId + " has been modified");
+        }
+        if (taskDto.getVersion() != null && !taskDto.getVersion().equals(existing.getVersion())) {
+            throw new OptimisticLockingFailureException("Task with id " + taskId + " has been modified");
+        }
+
+        boolean wasCompleted = existing.isCompleted();
         todoMapper.updateTaskFromDto(taskDto, existing);
 
-        Task saved = taskRepository.save(existing);
-        return todoMapper.toDto(saved);
+        // flush сразу: ответ и его ETag должны содержать уже увеличенную версию
+        Task saved = taskRepository.saveAndFlush(existing);
+        long completedDelta = 0;
+        if (saved.isCompleted() != wasCompleted) {
+            completedDelta = saved.isCompleted() ? 1 : -1;
+        }
+        adjustCounters(todoId, 0, completedDelta);
+        TaskDto result = todoMapper.toDto(saved);
+        publish(TodoChangeDto.Type.TASK_UPDATED, todoId, result);
+        return result;
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#todoId")
     public TaskDto toggleTaskCompletion(Long todoId, Long taskId) {
-        Task task = findTaskByIdAndTodoId(todoId, taskId);
-        task.setCompleted(!task.isCompleted());
+        // Задача и счётчики списка меняются одним выражением, см. TaskRepository.toggleCompletion
+        Task toggled = taskRepository.toggleCompletion(taskId, todoId)
+                .orElseThrow(() -> taskNotFound(todoId, taskId));
+        hibernateCacheEvictor.evictToggledTask(toggled.getId());
+        hibernateCacheEvictor.evictTodo(todoId);
+        TaskDto result = todoMapper.toDto(toggled);
+        publish(TodoChangeDto.Type.TASK_TOGGLED, todoId, result);
+        return result;
+    }
 
-        Task saved = taskRepository.save(task);
-        return todoMapper.toDto(saved);
+    /**
+     * Отмечает выполненными (или невыполненными) все задачи списка либо только переданные taskIds - одним UPDATE.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#todoId")
+    public BulkUpdateResultDto updateCompletion(Long todoId, TaskCompletionUpdateDto completionDto) {
+        verifyTodoExists(todoId);
+
+        boolean completed = completionDto.getCompleted();
+        List<Long> taskIds = completionDto.getTaskIds();
+        if (taskIds != null && taskIds.isEmpty()) {
+            return new BulkUpdateResultDto(0);
+        }
+        int updated = taskIds == null
+                ? taskRepository.updateCompletion(todoId, completed)
+                : taskRepository.updateCompletion(todoId, taskIds, completed);
+        if (updated > 0) {
+            adjustCounters(todoId, 0, completed ? updated : -updated);
+            publishTasksChanged(todoId);
+        }
+        return new BulkUpdateResultDto(updated);
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#todoId")
     public void deleteTask(Long todoId, Long taskId) {
         Task task = findTaskByIdAndTodoId(todoId, taskId);
         taskRepository.delete(task);
+        adjustCounters(todoId, -1, task.isCompleted() ? -1 : 0);
+        eventPublisher.publishEvent(new TodoChangeDto(TodoChangeDto.Type.TASK_DELETED, todoId, taskId, null));
+    }
+
+    private static Specification<Task> afterCursor(TaskFilterDto.SortField sortField, String cursor, boolean descending) {
+        String[] parts = CursorCodec.decode(cursor, 2);
+        try {
+            long id = Long.parseLong(parts[0]);
+            return switch (sortField) {
+                case ID -> TaskSpecifications.after("id", (Long) null, id, descending);
+                case CREATED_AT -> TaskSpecifications.after("createdAt", LocalDateTime.parse(parts[1]), id, descending);
+                case TITLE -> TaskSpecifications.after("title", parts[1], id, descending);
+            };
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Вызывается при каждом изменении задач списка, даже с нулевыми приращениями: тот же UPDATE увеличивает версию списка дел.
+     */
+    private void adjustCounters(Long todoId, long delta, long completedDelta) {
+        todoRepository.adjustTaskCounters(todoId, delta, completedDelta);
+        hibernateCacheEvictor.evictTodo(todoId);
+    }
+
+    private void publish(TodoChangeDto.Type type, Long todoId, TaskDto taskDto) {
+        eventPublisher.publishEvent(new TodoChangeDto(type, todoId, taskDto.getId(), taskDto));
+    }
+
+    private void publishTasksChanged(Long todoId) {
+        eventPublisher.publishEvent(new TodoChangeDto(TodoChangeDto.Type.TASKS_CHANGED, todoId, null, null));
+    }
+
+    private List<String> validate(TaskDto taskDto) {
+        if (taskDto == null) {
+            return List.of("Task must not be null");
+        }
+        Set<ConstraintViolation<TaskDto>> violations = validator.validate(taskDto);
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<TaskDto> violation : violations) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
     }
 
     private void verifyTodoExists(Long todoId) {
@@ -81,7 +330,15 @@ public class TaskService {
 
     private Task findTaskByIdAndTodoId(Long todoId, Long taskId) {
         return taskRepository.findByIdAndTodoItemId(taskId, todoId)
-                .orElseThrow(() -> new NoSuchElementException(
-                        "Task with id " + taskId + " not found or does not belong to TodoItem with id " + todoId));
+                .orElseThrow(() -> taskNotFound(todoId, taskId));
+    }
+
+    private static String taskETag(Long taskId, Long version) {
+        return ETags.strong(taskId + "-" + version);
+    }
+
+    private NoSuchElementException taskNotFound(Long todoId, Long taskId) {
+        return new NoSuchElementException(
+                "Task with id " + taskId + " not found or does not belong to TodoItem with id " + todoId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.todo.TodoList.service;
+
+import com.todo.TodoList.dto.TodoChangeDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Лента изменений для SSE-подписчиков (GET /api/todos/changes).
+ * <p>
+ * События приходят от TodoService/TaskService только после коммита транзакции. Каждому событию
+ * присваивается id вида {@code <эпоха запуска>-<номер>}; последние {@code todo.changes.replay-size}
+ * событий хранятся в памяти, чтобы переподключившийся клиент с Last-Event-ID получил пропущенное.
+ * Если пропущенное уже вытеснено или приложение перезапускалось, клиенту отправляется событие
+ * {@code reset} - ему нужно перечитать данные целиком.
+ * <p>
+ * У каждого подписчика своя ограниченная очередь. Подписчик, не успевающий её разбирать,
+ * отключается (политика drop); при переподключении он догоняет ленту по Last-Event-ID.
+ */
+@Slf4j
+@Component
+public class TodoChangeFeed {
+
+    private static final String RESET_EVENT = "reset";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Deque<Entry> replay = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Object lock = new Object();
+
+    private final int replaySize;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Counter dropped;
+
+    private long sequence;
+
+    public TodoChangeFeed(@Value("${todo.changes.replay-size:10000}") int replaySize,
+                          @Value("${todo.changes.buffer-size:256}") int bufferSize,
+                          @Value("${todo.changes.timeout:30m}") Duration timeout,
+                          MeterRegistry meterRegistry) {
+        this.replaySize = replaySize;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.dropped = Counter.builder("todo.changes.dropped")
+                .description("Subscribers disconnected because their buffer overflowed")
+                .register(meterRegistry);
+        Gauge.builder("todo.changes.subscribers", subscribers, Set::size)
+                .description("Active change feed subscribers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param todoId      только события этого списка дел; null - все события
+     * @param lastEventId значение Last-Event-ID переподключившегося клиента или null
+     */
+    public SseEmitter subscribe(Long todoId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, todoId, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Под общей блокировкой с publish: ни одно событие не потеряется и не придёт дважды
+        synchronized (lock) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replayAfter(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.drain();
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onChange(TodoChangeDto change) {
+        synchronized (lock) {
+            Entry entry = new Entry(++sequence, change);
+            replay.addLast(entry);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(entry);
+            }
+        }
+        subscribers.forEach(Subscriber::drain);
+    }
+
+    /**
+     * Комментарий-пинг раз в {@code todo.changes.heartbeat}: держит соединение через прокси
+     * и выявляет отключившихся клиентов.
+     */
+    @Scheduled(fixedDelayString = "${todo.changes.heartbeat:15s}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.send(SseEmitter.event().comment("ping"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdown();
+    }
+
+    private void replayAfter(Subscriber subscriber, String lastEventId) {
+        long lastSequence = parseSequence(lastEventId);
+        long oldest = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence();
+        if (lastSequence < 0 || lastSequence > sequence || lastSequence + 1 < oldest) {
+            subscriber.resetAt = sequence;
+            return;
+        }
+        for (Entry entry : replay) {
+            if (entry.sequence() > lastSequence && !subscriber.offer(entry)) {
+                // Пропущенного больше, чем помещается в буфер - дешевле перечитать всё
+                subscriber.pending.clear();
+                subscriber.resetAt = sequence;
+                return;
+            }
+        }
+    }
+
+    private long parseSequence(String eventId) {
+        int separator = eventId.indexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Entry(long sequence, TodoChangeDto change) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long todoId;
+        private final Queue<Entry> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        /** Номер события, с которого клиент должен перечитать данные; -1 - не требуется */
+        private volatile long resetAt = -1;
+
+        private Subscriber(SseEmitter emitter, Long todoId, Queue<Entry> pending) {
+            this.emitter = emitter;
+            this.todoId = todoId;
+            this.pending = pending;
+        }
+
+        private boolean offer(Entry entry) {
+            if (todoId != null && !todoId.equals(entry.change().getTodoId())) {
+                return true;
+            }
+            if (pending.offer(entry)) {
+                return true;
+            }
+            if (subscribers.remove(this)) {
+                dropped.increment();
+                log.debug("Change feed subscriber dropped: buffer of {} events is full", bufferSize);
+                senders.execute(emitter::complete);
+            }
+            return false;
+        }
+
+        private void drain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            senders.execute(() -> {
+                try {
+                    long resetSequence = resetAt;
+                    if (resetSequence >= 0) {
+                        resetAt = -1;
+                        send(SseEmitter.event().name(RESET_EVENT).id(epoch + "-" + resetSequence).data(""));
+                    }
+                    Entry entry;
+                    while ((entry = pending.poll()) != null) {
+                        TodoChangeDto change = entry.change();
+                        send(SseEmitter.event()
+                                .id(epoch + "-" + entry.sequence())
+                                .name(change.getType().name())
+                                .data(change, MediaType.APPLICATION_JSON));
+                    }
+                } finally {
+                    draining.set(false);
+                }
+                // Событие могло прийти между последним poll и сбросом флага
+                if (!pending.isEmpty()) {
+                    drain();
+                }
+            });
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.todo.TodoList.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoDto;
+import com.todo.TodoList.entity.TodoItem;
+import com.todo.TodoList.mapper.TodoMapper;
+import com.todo.TodoList.repository.TaskRepository;
+import com.todo.TodoList.repository.TodoRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка всех списков дел вместе с задачами.
+ * Списки читаются серверным курсором, задачи догружаются пачками по {@link #CHUNK_SIZE} списков,
+ * после записи пачки контекст персистентности очищается - память не растёт с размером таблицы.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TodoExportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final TodoRepository todoRepository;
+    private final TaskRepository taskRepository;
+    private final TodoMapper todoMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        JSON("application/json", "json");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format fromValue(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+
+    public void export(Format format, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TodoDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<TodoItem> todos = todoRepository.streamAll()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            } else {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+            }
+
+            boolean written = false;
+            List<TodoItem> chunk = new ArrayList<>(CHUNK_SIZE);
+            Iterator<TodoItem> iterator = todos.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    writeChunk(chunk, writer, generator);
+                    written = true;
+                    chunk.clear();
+                }
+            }
+
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            } else if (written) {
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeChunk(List<TodoItem> chunk, ObjectWriter writer, JsonGenerator generator) throws IOException {
+        Map<Long, TodoDto> byId = new LinkedHashMap<>();
+        for (TodoItem todo : chunk) {
+            TodoDto dto = todoMapper.toDtoWithoutTasks(todo);
+            dto.setTasks(new ArrayList<>());
+            byId.put(dto.getId(), dto);
+        }
+        for (TaskDto taskDto : taskRepository.findDtosByTodoItemIdIn(byId.keySet())) {
+            byId.get(taskDto.getTodoItemId()).getTasks().add(taskDto);
+        }
+
+        for (TodoDto dto : byId.values()) {
+            writer.writeValue(generator, dto);
+        }
+        generator.flush();
+
+        // Отсоединяем уже выгруженные сущности, чтобы контекст не рос вместе с выгрузкой
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,19 @@
+package com.todo.TodoList.service;
+
+/**
+ * Способ загрузки списка дел вместе с задачами.
+ */
+public enum TodoFetchStrategy {
+
+    /**
+     * Один запрос с LEFT JOIN tasks ({@code @EntityGraph}): колонки списка повторяются в каждой строке задачи.
+     * Для одного списка выгоден кэшем второго уровня: findById целиком обслуживается из кэша.
+     */
+    ENTITY_GRAPH,
+
+    /**
+     * Два запроса: списки дел без задач, затем проекция задач {@code todo_item_id IN (...)} порциями.
+     * Каждая строка передаётся один раз.
+     */
+    BATCH
+}
@@ -0,0 +1,354 @@
+package com.todo.TodoList.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.TodoList.dto.ImportErrorDto;
+import com.todo.TodoList.dto.ImportSummaryDto;
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Массовый импорт списков дел и задач через PostgreSQL COPY.
+ * <p>
+ * Входной поток разбирается построчно, каждая запись проверяется по правилам {@link TodoDto}/{@link TaskDto}
+ * и сразу пишется в COPY во временную таблицу import_rows. Затем списки и задачи переносятся
+ * в todo_items и tasks set-based запросами, ссылки задач на списки разрешаются по todo_key.
+ * JPA-сущности не создаются, в памяти держится только текущая запись (и для CSV - встреченные todo_key).
+ * <p>
+ * CSV: заголовок обязателен, колонки todo_key, todo_title, todo_description, todo_completed,
+ * task_title, task_description, task_completed. Каждая строка - задача; строка без task_title задаёт только список.
+ * Поля списка берутся и проверяются только в первой строке с данным todo_key, в остальных строках они игнорируются;
+ * если список из первой строки отклонён, задачи остальных строк с тем же todo_key отклоняются с указанием этой строки.
+ * <p>
+ * NDJSON: одна строка - один {@link TodoDto} с вложенными задачами (формат выгрузки /api/todos/export).
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TodoImportService {
+
+    /**
+     * Должен совпадать с allocationSize в {@code @SequenceGenerator} сущностей и шагом последовательностей.
+     */
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final char KIND_TODO = 'T';
+    private static final char KIND_TASK = 'K';
+
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMP TABLE import_rows (
+                row_no BIGINT NOT NULL,
+                line_no BIGINT NOT NULL,
+                kind CHAR(1) NOT NULL,
+                todo_key TEXT NOT NULL,
+                title VARCHAR(255) NOT NULL,
+                description TEXT,
+                completed BOOLEAN NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_STAGING_ROWS =
+            "COPY import_rows (row_no, line_no, kind, todo_key, title, description, completed) FROM STDIN WITH (FORMAT csv)";
+
+    // Первая строка с данным todo_key задаёт список дел
+    private static final String CREATE_IMPORT_TODOS = """
+            CREATE TEMP TABLE import_todos ON COMMIT DROP AS
+            SELECT DISTINCT ON (todo_key) row_no, todo_key, title, description, completed, NULL::BIGINT AS id
+            FROM import_rows
+            WHERE kind = 'T'
+            ORDER BY todo_key, row_no
+            """;
+
+    private static final String CREATE_IMPORT_TASKS = """
+            CREATE TEMP TABLE import_tasks ON COMMIT DROP AS
+            SELECT r.row_no, r.title, r.description, r.completed, t.id AS todo_item_id, NULL::BIGINT AS id
+            FROM import_rows r
+            JOIN import_todos t ON t.todo_key = r.todo_key
+            WHERE r.kind = 'K'
+            """;
+
+    /**
+     * Выделяет идентификаторы блоками по {@link #ID_BLOCK_SIZE} из той же последовательности, что и Hibernate:
+     * каждый nextval резервирует блок [value, value + 49], как это делает оптимизатор pooled-lo.
+     */
+    private static final String ASSIGN_IDS = """
+            WITH numbered AS (
+                SELECT row_no, row_number() OVER (ORDER BY row_no) - 1 AS rn FROM %1$s
+            ), blocks AS (
+                SELECT nextval('%2$s') AS base, g - 1 AS block_no
+                FROM generate_series(1, (SELECT (count(*) + %3$d - 1) / %3$d FROM %1$s)) AS g
+            )
+            UPDATE %1$s s SET id = b.base + n.rn %% %3$d
+            FROM numbered n
+            JOIN blocks b ON b.block_no = n.rn / %3$d
+            WHERE s.row_no = n.row_no
+            """;
+
+    // Счётчики задач считаются сразу по import_tasks, поэтому задачи размечаются до вставки списков
+    private static final String INSERT_TODOS = """
+            INSERT INTO todo_items (id, title, description, completed, task_count, completed_task_count)
+            SELECT t.id, t.title, t.description, t.completed, coalesce(c.total, 0), coalesce(c.done, 0)
+            FROM import_todos t
+            LEFT JOIN (
+                SELECT todo_item_id, count(*) AS total, count(*) FILTER (WHERE completed) AS done
+                FROM import_tasks
+                GROUP BY todo_item_id
+            ) c ON c.todo_item_id = t.id
+            ORDER BY t.id
+            """;
+
+    private static final String INSERT_TASKS = """
+            INSERT INTO tasks (id, title, description, completed, todo_item_id)
+            SELECT id, title, description, completed, todo_item_id FROM import_tasks ORDER BY id
+            """;
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "todo_key", "todo_title", "todo_description", "todo_completed",
+            "task_title", "task_description", "task_completed");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    @Transactional
+    public ImportSummaryDto importTodos(Format format, InputStream in) throws IOException {
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+
+        ImportStats stats = new ImportStats();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            try (Writer copy = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(pgConnection, COPY_STAGING_ROWS, 1 << 16), StandardCharsets.UTF_8))) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                if (format == Format.CSV) {
+                    readCsv(reader, copy, stats);
+                } else {
+                    readNdjson(reader, copy, stats);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to open COPY stream", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+
+        jdbcTemplate.execute(CREATE_IMPORT_TODOS);
+        jdbcTemplate.update(ASSIGN_IDS.formatted("import_todos", "todo_items_id_seq", ID_BLOCK_SIZE));
+        jdbcTemplate.execute(CREATE_IMPORT_TASKS);
+        jdbcTemplate.update(ASSIGN_IDS.formatted("import_tasks", "tasks_id_seq", ID_BLOCK_SIZE));
+
+        long todosImported = jdbcTemplate.update(INSERT_TODOS);
+        long tasksImported = jdbcTemplate.update(INSERT_TASKS);
+
+        return new ImportSummaryDto(todosImported, tasksImported, stats.rejected, stats.errors);
+    }
+
+    private void readCsv(BufferedReader reader, Writer copy, ImportStats stats) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(), i);
+        }
+        if (!columns.containsKey("todo_key") || !columns.containsKey("todo_title")) {
+            throw new IllegalArgumentException("CSV header must contain todo_key and todo_title, supported columns: " + CSV_COLUMNS);
+        }
+
+        // todo_key -> строка, в которой список был отклонён (0 - список принят)
+        Map<String, Long> todoKeys = new HashMap<>();
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            long line = csv.getRecordLine();
+            String todoKey = field(record, columns, "todo_key");
+            if (todoKey == null) {
+                stats.reject(line, "todo_key: must not be empty");
+                continue;
+            }
+
+            List<String> errors = new ArrayList<>();
+            Long rejectedAt = todoKeys.get(todoKey);
+            if (rejectedAt == null) {
+                TodoDto todo = new TodoDto();
+                todo.setTitle(field(record, columns, "todo_title"));
+                todo.setDescription(field(record, columns, "todo_description"));
+                todo.setCompleted(parseBoolean(field(record, columns, "todo_completed"), "todo_completed", errors));
+                errors.addAll(validate(todo));
+                if (!errors.isEmpty()) {
+                    todoKeys.put(todoKey, line);
+                    stats.reject(line, String.join("; ", errors));
+                    continue;
+                }
+                todoKeys.put(todoKey, 0L);
+                stats.write(copy, line, KIND_TODO, todoKey, todo.getTitle(), todo.getDescription(), todo.isCompleted());
+            } else if (rejectedAt > 0) {
+                stats.reject(line, "todo_key " + todoKey + ": todo was rejected at line " + rejectedAt);
+                continue;
+            }
+
+            String taskTitle = field(record, columns, "task_title");
+            String taskDescription = field(record, columns, "task_description");
+            String taskCompleted = field(record, columns, "task_completed");
+            if (taskTitle == null && taskDescription == null && taskCompleted == null) {
+                continue;
+            }
+            TaskDto task = new TaskDto();
+            task.setTitle(taskTitle);
+            task.setDescription(taskDescription);
+            task.setCompleted(parseBoolean(taskCompleted, "task_completed", errors));
+            errors.addAll(validate(task));
+            if (!errors.isEmpty()) {
+                stats.reject(line, String.join("; ", errors));
+                continue;
+            }
+            stats.write(copy, line, KIND_TASK, todoKey, task.getTitle(), task.getDescription(), task.isCompleted());
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Writer copy, ImportStats stats) throws IOException {
+        String json;
+        long line = 0;
+        while ((json = reader.readLine()) != null) {
+            line++;
+            if (json.isBlank()) {
+                continue;
+            }
+
+            TodoDto todo;
+            try {
+                todo = objectMapper.readValue(json, TodoDto.class);
+            } catch (JsonProcessingException e) {
+                stats.reject(line, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            List<String> errors = validate(todo);
+            if (!errors.isEmpty()) {
+                stats.reject(line, String.join("; ", errors));
+                continue;
+            }
+
+            String todoKey = Long.toString(line);
+            stats.write(copy, line, KIND_TODO, todoKey, todo.getTitle(), todo.getDescription(), todo.isCompleted());
+            if (todo.getTasks() == null) {
+                continue;
+            }
+            for (TaskDto task : todo.getTasks()) {
+                List<String> taskErrors = task == null ? List.of("Task must not be null") : validate(task);
+                if (!taskErrors.isEmpty()) {
+                    stats.reject(line, String.join("; ", taskErrors));
+                    continue;
+                }
+                stats.write(copy, line, KIND_TASK, todoKey, task.getTitle(), task.getDescription(), task.isCompleted());
+            }
+        }
+    }
+
+    private <T> List<String> validate(T dto) {
+        Set<ConstraintViolation<T>> violations = validator.validate(dto);
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<T> violation : violations) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    private static boolean parseBoolean(String value, String name, List<String> errors) {
+        if (value == null) {
+            return false;
+        }
+        String normalized = value.trim().toLowerCase();
+        if (normalized.equals("true") || normalized.equals("1")) {
+            return true;
+        }
+        if (!normalized.equals("false") && !normalized.equals("0")) {
+            errors.add(name + ": must be true or false");
+        }
+        return false;
+    }
+
+    private static final class ImportStats {
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+        private long rejected;
+        private long rowNo;
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < ImportErrorDto.MAX_REPORTED) {
+                errors.add(new ImportErrorDto(line, message));
+            }
+        }
+
+        void write(Writer copy, long line, char kind, String todoKey, String title, String description,
+                   boolean completed) throws IOException {
+            copy.write(Long.toString(++rowNo));
+            copy.write(',');
+            copy.write(Long.toString(line));
+            copy.write(',');
+            copy.write(kind);
+            copy.write(',');
+            writeCsvValue(copy, todoKey);
+            copy.write(',');
+            writeCsvValue(copy, title);
+            copy.write(',');
+            writeCsvValue(copy, description);
+            copy.write(',');
+            copy.write(completed ? "t" : "f");
+            copy.write('\n');
+        }
+
+        /**
+         * В COPY CSV пустое поле без кавычек - NULL, поэтому непустые значения всегда берутся в кавычки.
+         */
+        private static void writeCsvValue(Writer copy, String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            copy.write('"');
+            copy.write(value.replace("\"", "\"\""));
+            copy.write('"');
+        }
+    }
+}
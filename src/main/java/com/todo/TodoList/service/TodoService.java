@@ -1,33 +1,149 @@
 package com.todo.TodoList.service;
 
+import com.todo.TodoList.config.CacheConfig;
+import com.todo.TodoList.dto.BulkDeleteResultDto;
+import com.todo.TodoList.dto.PageDto;
 import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoBulkDeleteDto;
+import com.todo.TodoList.dto.TodoChangeDto;
 import com.todo.TodoList.dto.TodoDto;
+import com.todo.TodoList.dto.TodoSummaryDto;
 import com.todo.TodoList.entity.Task;
 import com.todo.TodoList.entity.TodoItem;
 import com.todo.TodoList.mapper.TodoMapper;
+import com.todo.TodoList.repository.TaskRepository;
 import com.todo.TodoList.repository.TodoRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class TodoService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    // Параметров в одном IN (...) при догрузке задач; PostgreSQL ограничивает запрос 32767 параметрами
+    static final int TASKS_IN_CHUNK_SIZE = 1000;
+
     private final TodoRepository todoRepository;
+    private final TaskRepository taskRepository;
     private final TodoMapper todoMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final HibernateCacheEvictor hibernateCacheEvictor;
+    private final EntityManager entityManager;
+
+    @Value("${todo.bulk-delete.chunk-size}")
+    private int bulkDeleteChunkSize;
+
+    @Value("${todo.fetch.list}")
+    private TodoFetchStrategy listFetchStrategy;
+
+    @Value("${todo.fetch.by-id}")
+    private TodoFetchStrategy byIdFetchStrategy;
 
     public List<TodoDto> getAllTodos() {
-        List<TodoItem> allTodo = todoRepository.findAll();
-        return allTodo.stream().map(todoMapper::toDto).toList();
+        if (listFetchStrategy == TodoFetchStrategy.ENTITY_GRAPH) {
+            List<TodoItem> allTodo = todoRepository.findAll();
+            return allTodo.stream().map(todoMapper::toDto).toList();
+        }
+        List<TodoDto> todos = todoRepository.findAllWithoutTasks().stream().map(todoMapper::toDtoWithoutTasks).toList();
+        attachTasks(todos);
+        return todos;
+    }
+
+    /**
+     * Страница списков дел по курсору. Задачи подгружаются только по запросу,
+     * одним дополнительным запросом {@code todo_item_id IN (...)} на всю страницу.
+     */
+    public PageDto<TodoDto> getTodoPage(String after, int limit, boolean includeTasks) {
+        int pageSize = pageSize(limit);
+
+        // Запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница
+        List<TodoItem> todos = todoRepository.findByIdGreaterThanOrderByIdAsc(afterId(after), Limit.of(pageSize + 1));
+        boolean hasMore = todos.size() > pageSize;
+        if (hasMore) {
+            todos = todos.subList(0, pageSize);
+        }
+
+        List<TodoDto> items = todos.stream().map(todoMapper::toDtoWithoutTasks).toList();
+
+        if (includeTasks) {
+            attachTasks(items);
+        }
+
+        String nextCursor = hasMore ? CursorCodec.encodeId(items.get(items.size() - 1).getId()) : null;
+        return new PageDto<>(items, nextCursor);
+    }
+
+    /**
+     * Страница кратких представлений списков дел (без задач, с количеством выполненных задач).
+     */
+    public PageDto<TodoSummaryDto> getTodoSummaryPage(String after, int limit) {
+        int pageSize = pageSize(limit);
+
+        List<TodoSummaryDto> items = todoRepository.findSummariesAfter(afterId(after), PageRequest.ofSize(pageSize + 1));
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+
+        String nextCursor = hasMore ? CursorCodec.encodeId(items.get(items.size() - 1).getId()) : null;
+        return new PageDto<>(items, nextCursor);
     }
 
+    /**
+     * Список дел с задачами из кэша DTO. Запись кэша сверяется с текущей версией списка (одна строка по ключу):
+     * DTO, положенный в кэш читателем уже после конкурентной записи и её вытеснения, не отдаётся, а перечитывается.
+     * ETag ответа строится по версии самого DTO ({@link #weakETagOf}), поэтому всегда соответствует телу.
+     */
     public TodoDto getTodoById(Long id) {
+        Long version = currentVersion(id);
+        Cache todosCache = cacheManager.getCache(CacheConfig.TODOS_CACHE);
+        TodoDto cached = todosCache == null ? null : todosCache.get(id, TodoDto.class);
+        if (cached != null && version.equals(cached.getVersion())) {
+            return cached;
+        }
+        TodoDto loaded = loadTodo(id);
+        // Прочитанное с реплики (CacheMode.GET, см. ReadReplicaConfig) в кэш не кладётся
+        if (todosCache != null && entityManager.unwrap(Session.class).getCacheMode().isPutEnabled()) {
+            todosCache.put(id, loaded);
+        }
+        return loaded;
+    }
+
+    private TodoDto loadTodo(Long id) {
+        if (byIdFetchStrategy == TodoFetchStrategy.BATCH) {
+            TodoDto todo = todoRepository.findWithoutTasksById(id)
+                    .map(todoMapper::toDtoWithoutTasks)
+                    .orElseThrow(() -> new NoSuchElementException("TodoItem not found with id: " + id));
+            todo.setTasks(taskRepository.findDtosByTodoItemId(id));
+            return todo;
+        }
         TodoItem todoItem = todoRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("TodoItem not found with id: " + id));
         return todoMapper.toDto(todoItem);
@@ -37,34 +153,175 @@ public class TodoService {
     public TodoDto createTodo(TodoDto todoDto) {
         TodoItem todoItem = todoMapper.toEntity(todoDto);
         
-        // Опционально создаем задачи, если они переданы в DTO
+        // Опционально создаем задачи, если они переданы в DTO.
+        // Идентификаторы выделяются из пула последовательности, поэтому каскадные INSERT-ы уходят батчами
         if (todoDto.getTasks() != null && !todoDto.getTasks().isEmpty()) {
             for (TaskDto taskDto : todoDto.getTasks()) {
                 Task task = todoMapper.toEntity(taskDto);
                 todoItem.addTask(task);
             }
         }
+        // Счётчики новой записи известны заранее и пишутся тем же INSERT-ом
+        todoItem.setTaskCount(todoItem.getTasks().size());
+        todoItem.setCompletedTaskCount(todoItem.getTasks().stream().filter(Task::isCompleted).count());
         
         TodoItem saved = todoRepository.save(todoItem);
+        publish(TodoChangeDto.Type.TODO_CREATED, saved);
         return todoMapper.toDto(saved);
     }
 
+    /**
+     * Слабый ETag списка дел для условных GET по его версии; версия увеличивается и при изменении любой его задачи.
+     */
+    public String getTodoETag(Long id) {
+        return ETags.weak(todoETagValue(id, currentVersion(id)));
+    }
+
+    /**
+     * Сильный ETag по версии из самого DTO - для ответов на изменения; его принимает If-Match.
+     */
+    public static String eTagOf(TodoDto todo) {
+        return ETags.strong(todoETagValue(todo.getId(), todo.getVersion()));
+    }
+
+    /**
+     * Слабый ETag по версии из самого DTO - для ответов GET.
+     */
+    public static String weakETagOf(TodoDto todo) {
+        return ETags.weak(todoETagValue(todo.getId(), todo.getVersion()));
+    }
+
+    static String todoETagValue(Long id, Long version) {
+        return id + "-" + version;
+    }
+
+    private Long currentVersion(Long id) {
+        return todoRepository.findVersion(id)
+                .orElseThrow(() -> new NoSuchElementException("TodoItem not found with id: " + id));
+    }
+
+    /**
+     * @param ifMatch значение заголовка If-Match или null, если обновление безусловное
+     */
     @Transactional
-    public TodoDto updateTodo(Long id, TodoDto todoItemDto) {
+    @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#id")
+    public TodoDto updateTodo(Long id, TodoDto todoItemDto, String ifMatch) {
         TodoItem existing = todoRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("TodoItem not found with id: " + id));
 
+        // Конкурентные изменения после этой проверки отсечёт @Version при flush
+        if (ifMatch != null && !ETags.matches(ifMatch, ETags.strong(todoETagValue(id, currentVersion(id))))) {
+            throw new PreconditionFailedException("TodoItem with id " + id + " has been modified");
+        }
+        if (todoItemDto.getVersion() != null && !todoItemDto.getVersion().equals(existing.getVersion())) {
+            throw new OptimisticLockingFailureException("TodoItem with id " + id + " has been modified");
+        }
+
         todoMapper.updateEntityFromDto(todoItemDto, existing);
-        TodoItem saved = todoRepository.save(existing);
+        // flush сразу: ответ и его ETag должны содержать уже увеличенную версию
+        TodoItem saved = todoRepository.saveAndFlush(existing);
+        // Hibernate положит в кэш второго уровня счётчики, прочитанные в начале транзакции;
+        // конкурентное изменение задач могло их обновить, поэтому запись вытесняется
+        hibernateCacheEvictor.evictTodo(id);
+        publish(TodoChangeDto.Type.TODO_UPDATED, saved);
         return todoMapper.toDto(saved);
     }
 
+    /**
+     * Один DELETE; задачи удаляются каскадом в БД без загрузки сущностей.
+     */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#id")
     public String deleteTodo(Long id) {
-        if (!todoRepository.existsById(id)) {
+        if (todoRepository.deleteCascadingById(id) == 0) {
             throw new NoSuchElementException("TodoItem not found with id: " + id);
         }
-        todoRepository.deleteById(id);
+        hibernateCacheEvictor.evictDeletedTodos(List.of(id));
+        publishDeleted(id);
         return "Успешно удалено";
     }
+
+    /**
+     * Массовое удаление порциями по {@code todo.bulk-delete.chunk-size} списков дел.
+     * Каждая порция - отдельная короткая транзакция, поэтому блокировки не копятся;
+     * при ошибке уже удалённые порции остаются удалёнными.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkDeleteResultDto deleteTodos(TodoBulkDeleteDto request) {
+        boolean byIds = request.getIds() != null;
+        if (byIds == (request.getCompletedBefore() != null)) {
+            throw new IllegalArgumentException("Exactly one of ids or completedBefore must be provided");
+        }
+
+        long deleted = 0;
+        if (byIds) {
+            List<Long> ids = request.getIds().stream().filter(Objects::nonNull).distinct().toList();
+            for (int from = 0; from < ids.size(); from += bulkDeleteChunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + bulkDeleteChunkSize, ids.size()));
+                deleted += deleteChunk(() -> todoRepository.deleteChunkByIds(chunk));
+            }
+        } else {
+            int removed;
+            do {
+                removed = deleteChunk(() -> todoRepository.deleteCompletedChunk(request.getCompletedBefore(), bulkDeleteChunkSize));
+                deleted += removed;
+            } while (removed == bulkDeleteChunkSize);
+        }
+        return new BulkDeleteResultDto(deleted);
+    }
+
+    private int deleteChunk(Supplier<List<Long>> delete) {
+        List<Long> deletedIds = transactionTemplate.execute(status -> {
+            List<Long> ids = delete.get();
+            hibernateCacheEvictor.evictDeletedTodos(ids);
+            // Вытеснение из кэша и события откладываются до коммита порции
+            Cache todosCache = cacheManager.getCache(CacheConfig.TODOS_CACHE);
+            for (Long id : ids) {
+                if (todosCache != null) {
+                    todosCache.evict(id);
+                }
+                publishDeleted(id);
+            }
+            return ids;
+        });
+        return deletedIds == null ? 0 : deletedIds.size();
+    }
+
+    /**
+     * Задачи для уже загруженных списков дел: проекция {@code todo_item_id IN (...)} порциями,
+     * без JOIN и повторения колонок списка в каждой строке.
+     */
+    private void attachTasks(List<TodoDto> todos) {
+        Map<Long, TodoDto> byId = new HashMap<>();
+        for (TodoDto todo : todos) {
+            todo.setTasks(new ArrayList<>());
+            byId.put(todo.getId(), todo);
+        }
+        List<Long> ids = new ArrayList<>(byId.keySet());
+        for (int from = 0; from < ids.size(); from += TASKS_IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + TASKS_IN_CHUNK_SIZE, ids.size()));
+            for (TaskDto taskDto : taskRepository.findDtosByTodoItemIdIn(chunk)) {
+                byId.get(taskDto.getTodoItemId()).getTasks().add(taskDto);
+            }
+        }
+    }
+
+    private void publishDeleted(Long id) {
+        eventPublisher.publishEvent(new TodoChangeDto(TodoChangeDto.Type.TODO_DELETED, id, null, null));
+    }
+
+    /**
+     * Событие уходит подписчикам ленты изменений только после коммита.
+     */
+    private void publish(TodoChangeDto.Type type, TodoItem todoItem) {
+        eventPublisher.publishEvent(new TodoChangeDto(type, todoItem.getId(), null, todoMapper.toDtoWithoutTasks(todoItem)));
+    }
+
+    private static long afterId(String after) {
+        return after == null || after.isBlank() ? 0L : CursorCodec.decodeId(after);
+    }
+
+    private static int pageSize(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+    }
 }
\ No newline at end of file
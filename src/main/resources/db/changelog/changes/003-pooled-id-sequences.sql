@@ -0,0 +1,5 @@
+-- Hibernate выделяет идентификаторы блоками по 50 (оптимизатор pooled-lo),
+-- поэтому шаг последовательностей BIGSERIAL должен совпадать с allocationSize сущностей.
+-- DEFAULT nextval(...) у колонок остаётся рабочим для вставок в обход Hibernate.
+ALTER SEQUENCE todo_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE tasks_id_seq INCREMENT BY 50;
@@ -0,0 +1,3 @@
+-- Версии строк для оптимистической блокировки (@Version) и ETag
+ALTER TABLE todo_items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Денормализованные счётчики задач списка дел, поддерживаются инкрементально из TaskService
+ALTER TABLE todo_items ADD COLUMN IF NOT EXISTS task_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE todo_items ADD COLUMN IF NOT EXISTS completed_task_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE todo_items ti
+SET task_count = c.total,
+    completed_task_count = c.done
+FROM (
+    SELECT todo_item_id, count(*) AS total, count(*) FILTER (WHERE completed) AS done
+    FROM tasks
+    GROUP BY todo_item_id
+) c
+WHERE ti.id = c.todo_item_id;
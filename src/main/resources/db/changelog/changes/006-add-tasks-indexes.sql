@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+-- Индексы создаются CONCURRENTLY, чтобы не блокировать запись в tasks; это невозможно внутри транзакции.
+-- (todo_item_id, id) покрывает поиск задач списка, упорядочивание по id, join-ы entity graph
+-- и ON DELETE CASCADE, поэтому отдельный индекс только по todo_item_id не нужен.
+
+--changeset todo:006-idx-tasks-todo-item-id runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_todo_item_id_id ON tasks (todo_item_id, id);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_todo_item_id_id;
+
+--changeset todo:006-idx-tasks-incomplete runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_incomplete ON tasks (todo_item_id, id) WHERE completed = false;
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_incomplete;
@@ -0,0 +1,27 @@
+--liquibase formatted sql
+
+-- Полнотекстовый поиск: название весит больше описания (A > B).
+-- Столбцы генерируемые, поэтому их заполняют и вставки через JPA, и COPY-импорт.
+-- Добавление STORED-столбца переписывает таблицу; на больших таблицах применять в окно обслуживания.
+
+--changeset todo:008-todo-items-search-vector
+ALTER TABLE todo_items ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+) STORED;
+--rollback ALTER TABLE todo_items DROP COLUMN IF EXISTS search_vector;
+
+--changeset todo:008-tasks-search-vector
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+) STORED;
+--rollback ALTER TABLE tasks DROP COLUMN IF EXISTS search_vector;
+
+--changeset todo:008-idx-todo-items-search runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_todo_items_search ON todo_items USING GIN (search_vector);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_todo_items_search;
+
+--changeset todo:008-idx-tasks-search runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_search ON tasks USING GIN (search_vector);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_search;
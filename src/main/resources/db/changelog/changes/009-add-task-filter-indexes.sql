@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+-- Индекс под сортировку и фильтр по дате создания GET /api/todos/{todoId}/tasks/page (TaskSpecifications):
+-- ORDER BY created_at, id с keyset-границей и диапазон created_at идут по индексу без сортировки списка.
+-- Сортировка по id и фильтр completed = false покрыты индексами из 006. Сортировка по названию, префикс названия
+-- и completed в сочетании с датой отдельных индексов не имеют: строки списка находятся по (todo_item_id, id)
+-- и досортировываются, а каждый индекс на tasks удорожает вставку, переключение и архивацию задач.
+
+--changeset todo:009-idx-tasks-created-at runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_todo_created_at ON tasks (todo_item_id, created_at, id);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_todo_created_at;
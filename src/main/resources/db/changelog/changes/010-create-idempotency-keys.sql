@@ -0,0 +1,13 @@
+-- Ключи идемпотентности POST/PUT/PATCH: хэш запроса и сохранённый ответ для повторов.
+-- Строка без status_code - запрос ещё выполняется; expires_at ограничивает и хранение ответа, и "зависшие" выполнения
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash BYTEA NOT NULL,
+    status_code SMALLINT,
+    content_type VARCHAR(255),
+    etag VARCHAR(255),
+    response_body BYTEA,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,25 @@
+--liquibase formatted sql
+
+-- Архив выполненных задач: TaskArchiver переносит сюда старые выполненные задачи из tasks.
+-- Счётчики task_count / completed_task_count учитывают и архивные задачи.
+
+--changeset todo:011-tasks-archive
+CREATE TABLE IF NOT EXISTS tasks_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    completed BOOLEAN NOT NULL,
+    created_at TIMESTAMP,
+    todo_item_id BIGINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_tasks_archive_todo_item FOREIGN KEY (todo_item_id) REFERENCES todo_items(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_todo_item_id_id ON tasks_archive (todo_item_id, id);
+--rollback DROP TABLE IF EXISTS tasks_archive;
+
+-- Выборка кандидатов на архивацию без чтения невыполненных задач
+--changeset todo:011-idx-tasks-completed-created-at runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_completed_created_at ON tasks (created_at) WHERE completed = true;
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_completed_created_at;
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+-- Признак "изменение запроса с этим ключом зафиксировано": ставится в той же транзакции, что и само изменение.
+-- Такой ключ не освобождается, даже если сохранить ответ не удалось, и повтор не выполняет запрос заново.
+
+--changeset todo:012-idempotency-committed
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS committed BOOLEAN NOT NULL DEFAULT false;
+--rollback ALTER TABLE idempotency_keys DROP COLUMN IF EXISTS committed;
@@ -0,0 +1,15 @@
+--liquibase formatted sql
+
+-- Партиция события хранится в строке, чтобы выборка реле WHERE partition_key = ? ORDER BY id шла по индексу,
+-- а не сканировала таблицу выражением mod(aggregate_id, ?). Уже записанные события раскладываются
+-- по 16 партициям (todo.outbox.relay.partitions по умолчанию).
+
+--changeset todo:013-outbox-partition-key
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS partition_key INT;
+UPDATE outbox_events SET partition_key = mod(aggregate_id, 16) WHERE partition_key IS NULL;
+ALTER TABLE outbox_events ALTER COLUMN partition_key SET NOT NULL;
+--rollback ALTER TABLE outbox_events DROP COLUMN IF EXISTS partition_key;
+
+--changeset todo:013-idx-outbox-partition runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_events_partition_id ON outbox_events (partition_key, id);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_outbox_events_partition_id;
@@ -0,0 +1,16 @@
+--liquibase formatted sql
+
+-- Индексы, которые ранняя версия 009 создавала без подтверждения планами; на базах, где она уже применена,
+-- они удаляются. Оставлен только idx_tasks_todo_created_at (см. 009).
+
+--changeset todo:014-drop-idx-tasks-completed-created-at runInTransaction:false
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_todo_completed_created_at;
+--rollback CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_todo_completed_created_at ON tasks (todo_item_id, completed, created_at, id);
+
+--changeset todo:014-drop-idx-tasks-title runInTransaction:false
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_todo_title;
+--rollback CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_todo_title ON tasks (todo_item_id, title, id);
+
+--changeset todo:014-drop-idx-tasks-title-prefix runInTransaction:false
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_todo_title_prefix;
+--rollback CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_todo_title_prefix ON tasks (todo_item_id, lower(title) text_pattern_ops);
@@ -0,0 +1,86 @@
+package com.todo.TodoList;
+
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoDto;
+import com.todo.TodoList.service.TodoService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Общий контекст тестов: приложение целиком (с фильтрами MockMvc) на встроенном PostgreSQL,
+ * схема создаётся миграциями Liquibase. Контекст и база одни на все тесты, поэтому тесты
+ * создают собственные списки дел и не рассчитывают на пустые таблицы.
+ */
+@SpringBootTest(properties = "logging.level.root=WARN")
+@AutoConfigureMockMvc
+public abstract class PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @Autowired
+    protected TodoService todoService;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    /**
+     * Счётчики и версия списка дел прямо из таблицы, мимо кэшей.
+     */
+    protected record TodoRow(long taskCount, long completedTaskCount, long version) {
+    }
+
+    protected TodoRow todoRow(Long todoId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT task_count, completed_task_count, version FROM todo_items WHERE id = ?",
+                (rs, rowNum) -> new TodoRow(rs.getLong("task_count"), rs.getLong("completed_task_count"), rs.getLong("version")),
+                todoId);
+    }
+
+    protected long completedTasks(Long todoId) {
+        Long completed = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tasks WHERE todo_item_id = ? AND completed", Long.class, todoId);
+        return completed == null ? 0 : completed;
+    }
+
+    protected TodoDto createTodo(int taskCount) {
+        TodoDto todo = new TodoDto();
+        todo.setTitle("Список");
+        List<TaskDto> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(task("Задача " + i));
+        }
+        todo.setTasks(tasks);
+        return todoService.createTodo(todo);
+    }
+
+    protected static TaskDto task(String title) {
+        TaskDto task = new TaskDto();
+        task.setTitle(title);
+        return task;
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.todo.TodoList.controller;
+
+import com.todo.TodoList.PostgresIntegrationTest;
+import com.todo.TodoList.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TodoControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void conditionalGetReturnsNotModifiedUntilATaskChanges() throws Exception {
+        Long todoId = createTodo(1).getId();
+
+        String eTag = mockMvc.perform(get("/api/todos/{id}", todoId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, containsString("Accept")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        // Слабый ETag: не мешает сжатию ответа в Tomcat
+        assertThat(eTag).startsWith("W/\"");
+
+        mockMvc.perform(get("/api/todos/{id}", todoId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        taskService.createTask(todoId, task("Новая"));
+
+        mockMvc.perform(get("/api/todos/{id}", todoId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+}
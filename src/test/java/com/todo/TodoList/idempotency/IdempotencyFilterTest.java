@@ -0,0 +1,106 @@
+package com.todo.TodoList.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.TodoList.PostgresIntegrationTest;
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoDto;
+import com.todo.TodoList.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class IdempotencyFilterTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void retryWithSameKeyReplaysStoredResponseWithoutCreatingAnotherTask() throws Exception {
+        Long todoId = createTodo(0).getId();
+        String key = UUID.randomUUID().toString();
+        String body = objectMapper.writeValueAsString(task("Один раз"));
+
+        MvcResult first = mockMvc.perform(post("/api/todos/{todoId}/tasks", todoId)
+                        .header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+
+        mockMvc.perform(post("/api/todos/{todoId}/tasks", todoId)
+                        .header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().json(first.getResponse().getContentAsString(), true));
+
+        assertThat(todoRow(todoId).taskCount()).isEqualTo(1);
+        assertThat(taskService.getAllTasksForTodo(todoId, false)).hasSize(1);
+    }
+
+    @Test
+    void sameKeyWithDifferentBodyIsRejected() throws Exception {
+        Long todoId = createTodo(0).getId();
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/api/todos/{todoId}/tasks", todoId)
+                        .header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(task("Первая"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/todos/{todoId}/tasks", todoId)
+                        .header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(task("Другая"))))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertThat(todoRow(todoId).taskCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sameKeyWithDifferentIfMatchIsRejectedInsteadOfReplayed() throws Exception {
+        TodoDto todo = createTodo(1);
+        Long todoId = todo.getId();
+        TaskDto existing = todo.getTasks().get(0);
+        String key = UUID.randomUUID().toString();
+        String body = objectMapper.writeValueAsString(task("Переименованная"));
+        String eTag = taskService.getTaskETag(todoId, existing.getId());
+
+        mockMvc.perform(put("/api/todos/{todoId}/tasks/{taskId}", todoId, existing.getId())
+                        .header(IdempotencyFilter.HEADER, key)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+
+        // Тело то же, но предусловие другое: чужой сохранённый ответ возвращать нельзя
+        mockMvc.perform(put("/api/todos/{todoId}/tasks/{taskId}", todoId, existing.getId())
+                        .header(IdempotencyFilter.HEADER, key)
+                        .header(HttpHeaders.IF_MATCH, "\"0-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    }
+}
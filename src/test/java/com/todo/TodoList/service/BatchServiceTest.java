@@ -0,0 +1,79 @@
+package com.todo.TodoList.service;
+
+import com.todo.TodoList.PostgresIntegrationTest;
+import com.todo.TodoList.dto.BatchOperationDto;
+import com.todo.TodoList.dto.BatchOperationResultDto;
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private BatchService batchService;
+
+    @Test
+    void countersOfTodoCreatedInTheSameBatchReachTheDatabase() {
+        TodoDto todo = new TodoDto();
+        todo.setTitle("Пакетный список");
+        todo.setTasks(List.of(task("Вложенная")));
+
+        List<BatchOperationResultDto> results = batchService.execute(List.of(
+                new BatchOperationDto(BatchOperationDto.Type.CREATE_TODO, "list", null, null, null, null, todo, null),
+                new BatchOperationDto(BatchOperationDto.Type.CREATE_TASK, "first", null, "list", null, null, null, task("Первая")),
+                new BatchOperationDto(BatchOperationDto.Type.CREATE_TASK, "second", null, "list", null, null, null, task("Вторая")),
+                new BatchOperationDto(BatchOperationDto.Type.TOGGLE_TASK, null, null, "list", null, "first", null, null)
+        )).getResults();
+
+        Long todoId = results.get(0).getId();
+        TodoRow row = todoRow(todoId);
+        assertThat(row.taskCount()).isEqualTo(3);
+        assertThat(row.completedTaskCount()).isEqualTo(1);
+        assertThat(completedTasks(todoId)).isEqualTo(1);
+        // UPDATE счётчиков увеличивает версию; снимок создания получает итоговую версию
+        assertThat(row.version()).isPositive();
+        assertThat(results.get(0).getTodo().getVersion()).isEqualTo(row.version());
+        assertThat(results.get(0).getTodo().getTasks()).singleElement()
+                .satisfies(nested -> assertThat(nested.getId()).isNotNull());
+        assertThat(results.get(3).getTask().isCompleted()).isTrue();
+        assertThat(todoService.getTodoById(todoId).getTaskCount()).isEqualTo(3);
+    }
+
+    @Test
+    void repeatedTogglesOfOneTaskKeepPerOperationSnapshots() {
+        TodoDto todo = createTodo(1);
+        Long todoId = todo.getId();
+        TaskDto task = todo.getTasks().get(0);
+        TodoRow before = todoRow(todoId);
+        BatchOperationDto toggle =
+                new BatchOperationDto(BatchOperationDto.Type.TOGGLE_TASK, null, todoId, null, task.getId(), null, null, null);
+
+        List<BatchOperationResultDto> results = batchService.execute(List.of(toggle, toggle)).getResults();
+
+        // Каждый результат - состояние сразу после своей операции, а не итоговое
+        assertThat(results.get(0).getTask().isCompleted()).isTrue();
+        assertThat(results.get(1).getTask().isCompleted()).isFalse();
+        assertThat(completedTasks(todoId)).isZero();
+        assertThat(todoRow(todoId)).isEqualTo(new TodoRow(1, 0, before.version() + 1));
+    }
+
+    @Test
+    void failedOperationRollsBackTheWholeBatch() {
+        Long todoId = createTodo(1).getId();
+        TodoRow before = todoRow(todoId);
+
+        assertThatThrownBy(() -> batchService.execute(List.of(
+                new BatchOperationDto(BatchOperationDto.Type.CREATE_TASK, null, todoId, null, null, null, null, task("Лишняя")),
+                new BatchOperationDto(BatchOperationDto.Type.TOGGLE_TASK, null, todoId, null, null, "missing", null, null)
+        ))).isInstanceOf(BatchOperationException.class);
+
+        assertThat(todoRow(todoId)).isEqualTo(before);
+        assertThat(todoService.getTodoById(todoId).getTasks()).hasSize(1);
+    }
+}
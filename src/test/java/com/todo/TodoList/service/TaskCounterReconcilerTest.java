@@ -0,0 +1,52 @@
+package com.todo.TodoList.service;
+
+import com.todo.TodoList.PostgresIntegrationTest;
+import com.todo.TodoList.dto.TodoDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskCounterReconcilerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TaskCounterReconciler reconciler;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void countersFollowTaskWrites() {
+        TodoDto todo = createTodo(2);
+        Long todoId = todo.getId();
+        assertThat(todoRow(todoId).taskCount()).isEqualTo(2);
+
+        taskService.createTask(todoId, task("Третья"));
+        taskService.toggleTaskCompletion(todoId, todo.getTasks().get(0).getId());
+        taskService.deleteTask(todoId, todo.getTasks().get(1).getId());
+
+        assertThat(todoRow(todoId).taskCount()).isEqualTo(2);
+        assertThat(todoRow(todoId).completedTaskCount()).isEqualTo(1);
+        assertThat(todoService.getTodoById(todoId).getTaskCount()).isEqualTo(2);
+    }
+
+    @Test
+    void reconcileRepairsDriftedCountersAndBumpsVersion() {
+        Long drifted = createTodo(3).getId();
+        Long intact = createTodo(1).getId();
+        // Кэшируем DTO и ETag до порчи счётчиков
+        String staleETag = todoService.getTodoETag(drifted);
+        assertThat(todoService.getTodoById(drifted).getTaskCount()).isEqualTo(3);
+        jdbcTemplate.update("UPDATE todo_items SET task_count = 10, completed_task_count = 7 WHERE id = ?", drifted);
+        TodoRow before = todoRow(drifted);
+        TodoRow intactBefore = todoRow(intact);
+
+        assertThat(reconciler.reconcile()).isGreaterThanOrEqualTo(1);
+
+        assertThat(todoRow(drifted)).isEqualTo(new TodoRow(3, 0, before.version() + 1));
+        // Исправленный список получает новый ETag и перечитывается из БД, нетронутый не меняется
+        assertThat(todoService.getTodoETag(drifted)).isNotEqualTo(staleETag);
+        assertThat(todoService.getTodoById(drifted).getTaskCount()).isEqualTo(3);
+        assertThat(todoRow(intact)).isEqualTo(intactBefore);
+    }
+}
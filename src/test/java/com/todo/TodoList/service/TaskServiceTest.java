@@ -0,0 +1,134 @@
+package com.todo.TodoList.service;
+
+import com.todo.TodoList.PostgresIntegrationTest;
+import com.todo.TodoList.diagnostics.SqlStatementCounter;
+import com.todo.TodoList.dto.TaskBatchItemResultDto;
+import com.todo.TodoList.dto.TaskBatchResultDto;
+import com.todo.TodoList.dto.TaskCompletionUpdateDto;
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Test
+    void createTasksRejectsInvalidItemsAndSavesTheRestInOneJdbcBatch() {
+        Long todoId = createTodo(0).getId();
+        TaskDto completed = task("Выполненная");
+        completed.setCompleted(true);
+        List<TaskDto> tasks = List.of(task("Первая"), task(""), completed, task("Третья"));
+
+        sqlStatementCounter.start();
+        TaskBatchResultDto result = taskService.createTasks(todoId, tasks);
+        Map<String, SqlStatementCounter.Executions> statements = sqlStatementCounter.stop();
+
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getResults()).extracting(TaskBatchItemResultDto::getStatus).containsExactly(
+                TaskBatchItemResultDto.Status.CREATED, TaskBatchItemResultDto.Status.REJECTED,
+                TaskBatchItemResultDto.Status.CREATED, TaskBatchItemResultDto.Status.CREATED);
+        assertThat(result.getResults().get(1).getErrors()).isNotEmpty();
+        assertThat(result.getResults().get(0).getTask().getId()).isNotNull();
+
+        // Все INSERT-ы задач - JDBC-батчем, ни одного одиночного
+        Map.Entry<String, SqlStatementCounter.Executions> inserts = statements.entrySet().stream()
+                .filter(entry -> entry.getKey().toLowerCase().startsWith("insert into tasks"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(inserts.getValue().batches()).isEqualTo(1);
+        assertThat(inserts.getValue().single()).isZero();
+
+        assertThat(todoRow(todoId).taskCount()).isEqualTo(3);
+        assertThat(todoRow(todoId).completedTaskCount()).isEqualTo(1);
+    }
+
+    @Test
+    void toggleFlipsCompletionAndMovesCountersAndVersionsInOneStatement() {
+        TodoDto todo = createTodo(2);
+        Long todoId = todo.getId();
+        TaskDto task = todo.getTasks().get(0);
+        TodoRow before = todoRow(todoId);
+
+        sqlStatementCounter.start();
+        TaskDto toggled = taskService.toggleTaskCompletion(todoId, task.getId());
+        Map<String, SqlStatementCounter.Executions> statements = sqlStatementCounter.stop();
+
+        assertThat(toggled.isCompleted()).isTrue();
+        assertThat(toggled.getVersion()).isEqualTo(task.getVersion() + 1);
+        assertThat(todoRow(todoId)).isEqualTo(new TodoRow(2, 1, before.version() + 1));
+        // Задача и счётчики меняются одним выражением, без SELECT ... FOR UPDATE
+        assertThat(statements.keySet()).noneMatch(sql -> sql.toLowerCase().contains("for update"));
+        assertThat(statements.keySet()).filteredOn(sql -> sql.toLowerCase().contains("update tasks")).hasSize(1);
+
+        TaskDto toggledBack = taskService.toggleTaskCompletion(todoId, task.getId());
+        assertThat(toggledBack.isCompleted()).isFalse();
+        assertThat(taskService.getTaskById(todoId, task.getId()).isCompleted()).isFalse();
+        assertThat(todoRow(todoId)).isEqualTo(new TodoRow(2, 0, before.version() + 2));
+    }
+
+    @Test
+    void concurrentTogglesKeepCompletedCounterInSyncWithTasks() throws Exception {
+        TodoDto todo = createTodo(3);
+        Long todoId = todo.getId();
+        int togglesPerTask = 15;
+
+        List<CompletableFuture<Void>> toggles = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(6)) {
+            for (TaskDto task : todo.getTasks()) {
+                for (int i = 0; i < togglesPerTask; i++) {
+                    toggles.add(CompletableFuture.runAsync(
+                            () -> taskService.toggleTaskCompletion(todoId, task.getId()), executor));
+                }
+            }
+            CompletableFuture.allOf(toggles.toArray(CompletableFuture[]::new)).get();
+        }
+
+        // Нечётное число переключений каждой задачи: все выполнены, ни одно переключение не потеряно
+        assertThat(completedTasks(todoId)).isEqualTo(3);
+        assertThat(todoRow(todoId).completedTaskCount()).isEqualTo(3);
+        assertThat(taskService.getAllTasksForTodo(todoId, false))
+                .allSatisfy(task -> assertThat(task.getVersion()).isEqualTo(togglesPerTask));
+    }
+
+    @Test
+    void updateCompletionChangesOnlyTasksInAnotherStateAndAdjustsCounters() {
+        TodoDto todo = createTodo(3);
+        Long todoId = todo.getId();
+        taskService.toggleTaskCompletion(todoId, todo.getTasks().get(0).getId());
+
+        int updated = taskService.updateCompletion(todoId, completion(true, null)).getUpdated();
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(todoRow(todoId).completedTaskCount()).isEqualTo(3);
+
+        List<Long> firstTwo = todo.getTasks().stream().limit(2).map(TaskDto::getId).toList();
+        int reverted = taskService.updateCompletion(todoId, completion(false, firstTwo)).getUpdated();
+
+        assertThat(reverted).isEqualTo(2);
+        assertThat(completedTasks(todoId)).isEqualTo(1);
+        assertThat(todoRow(todoId).completedTaskCount()).isEqualTo(1);
+    }
+
+    private static TaskCompletionUpdateDto completion(boolean completed, List<Long> taskIds) {
+        TaskCompletionUpdateDto update = new TaskCompletionUpdateDto();
+        update.setCompleted(completed);
+        update.setTaskIds(taskIds);
+        return update;
+    }
+}
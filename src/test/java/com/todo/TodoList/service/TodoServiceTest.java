@@ -0,0 +1,70 @@
+package com.todo.TodoList.service;
+
+import com.todo.TodoList.PostgresIntegrationTest;
+import com.todo.TodoList.dto.TaskDto;
+import com.todo.TodoList.dto.TodoDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TodoServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void eTagChangesWithEveryTaskWriteAndMatchesTheReturnedBody() {
+        TodoDto todo = createTodo(1);
+        Long todoId = todo.getId();
+        String initial = todoService.getTodoETag(todoId);
+        assertThat(initial).isEqualTo("W/\"" + todoId + "-" + todoRow(todoId).version() + "\"");
+
+        TaskDto created = taskService.createTask(todoId, task("Новая"));
+        String afterCreate = todoService.getTodoETag(todoId);
+        taskService.toggleTaskCompletion(todoId, created.getId());
+        String afterToggle = todoService.getTodoETag(todoId);
+        taskService.deleteTask(todoId, created.getId());
+        String afterDelete = todoService.getTodoETag(todoId);
+
+        assertThat(afterCreate).isNotEqualTo(initial);
+        assertThat(afterToggle).isNotEqualTo(afterCreate);
+        assertThat(afterDelete).isNotEqualTo(afterToggle);
+        // ETag ответа GET строится по версии самого DTO (в том числе из кэша) и совпадает с текущим
+        TodoDto loaded = todoService.getTodoById(todoId);
+        assertThat(TodoService.weakETagOf(loaded)).isEqualTo(afterDelete);
+        assertThat(loaded.getTaskCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedTodoIsReloadedAfterTaskChanges() {
+        TodoDto todo = createTodo(1);
+        Long todoId = todo.getId();
+        assertThat(todoService.getTodoById(todoId).getTasks()).hasSize(1);
+
+        taskService.createTask(todoId, task("Вторая"));
+
+        TodoDto reloaded = todoService.getTodoById(todoId);
+        assertThat(reloaded.getTasks()).hasSize(2);
+        assertThat(reloaded.getVersion()).isEqualTo(todoRow(todoId).version());
+    }
+
+    @Test
+    void updateWithStaleIfMatchIsRejected() {
+        TodoDto todo = createTodo(0);
+        Long todoId = todo.getId();
+        String staleETag = TodoService.eTagOf(todo);
+        taskService.createTask(todoId, task("Меняет версию списка"));
+
+        TodoDto update = new TodoDto();
+        update.setTitle("Новое название");
+        assertThatThrownBy(() -> todoService.updateTodo(todoId, update, staleETag))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        TodoDto current = todoService.getTodoById(todoId);
+        TodoDto updated = todoService.updateTodo(todoId, update, TodoService.eTagOf(current));
+        assertThat(updated.getTitle()).isEqualTo("Новое название");
+        assertThat(updated.getVersion()).isEqualTo(current.getVersion() + 1);
+    }
+}